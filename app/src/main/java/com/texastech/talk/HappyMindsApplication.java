@@ -0,0 +1,60 @@
+package com.texastech.talk;
+
+import android.app.Application;
+import android.os.StrictMode;
+
+import com.texastech.talk.database.AppDatabase;
+
+public class HappyMindsApplication extends Application {
+    /**
+     * Application entry point, created before any activity. Used for
+     * process-wide setup that should only ever happen once.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        if (BuildConfig.DEBUG) {
+            enableStrictMode();
+        }
+
+        warmUp();
+    }
+
+    void warmUp() {
+        /**
+         * Opens the database, which runs any migration and the catalog
+         * seeding, off the main thread while MainActivity is still drawing
+         * its first frame. Every process needs it, including one only
+         * started for the daily reminder.
+         */
+        StartupPipeline startup = StartupPipeline.getInstance();
+        startup.runInBackground(StartupPipeline.PHASE_DATABASE_OPEN, new Runnable() {
+            @Override
+            public void run() {
+                AppDatabase.getDatabase(HappyMindsApplication.this).getOpenHelper().getWritableDatabase();
+            }
+        });
+    }
+
+    void enableStrictMode() {
+        /**
+         * Room already throws when a query runs on the main thread. In debug
+         * builds any other disk or network access on the main thread crashes
+         * the app too, so a regression can't slip by in logcat, and any
+         * cursor or database that is never closed is logged.
+         */
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .penaltyLog()
+                .penaltyDeath()
+                .build());
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .penaltyLog()
+                .build());
+    }
+}
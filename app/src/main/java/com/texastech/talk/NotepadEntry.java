@@ -1,50 +1,163 @@
-package com.texastech.talk;
-
-import androidx.appcompat.app.AppCompatActivity;
-
-import android.os.Bundle;
-import android.view.View;
-import android.widget.Button;
-import android.widget.EditText;
-
-import com.texastech.talk.database.AppDatabase;
-import com.texastech.talk.database.Journal;
-import com.texastech.talk.database.JournalDao;
-
-public class NotepadEntry extends AppCompatActivity {
-
-    @Override
-    protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_notepad_entry);
-
-        Button saveBtn = findViewById(R.id.save_entry);
-        saveBtn.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                EditText titleEditText = findViewById(R.id.entry_title);
-                String title = titleEditText.getText().toString();
-
-                EditText bodyEditText= findViewById(R.id.entry_body);
-                String body = bodyEditText.getText().toString();
-
-                AppDatabase database = AppDatabase.getDatabase(NotepadEntry.this);
-                JournalDao journalDao = database.journalDao();
-
-                Journal journal = new Journal(title, body);
-                journalDao.insert(journal);
-
-                finish();
-            }
-        });
-
-        EditText titleEditText = findViewById(R.id.entry_title);
-        EditText bodyEditText= findViewById(R.id.entry_body);
-        if (getIntent().getStringExtra("Title") != null) {
-            titleEditText.setText(getIntent().getStringExtra("Title"));
-        }
-        if (getIntent().getStringExtra("Body") != null) {
-            bodyEditText.setText(getIntent().getStringExtra("Body"));
-        }
-    }
-}
+package com.texastech.talk;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.Toast;
+
+import com.texastech.talk.database.ErrorCallback;
+import com.texastech.talk.database.Journal;
+import com.texastech.talk.database.JournalRepository;
+import com.texastech.talk.database.ResultCallback;
+
+public class NotepadEntry extends AppCompatActivity {
+    /**
+     * Editor for a journal entry. When started with EXTRA_JOURNAL_ID the
+     * entry with that id is loaded in the background and shown for editing.
+     *
+     * What's typed is saved automatically by a NotepadViewModel, to the
+     * same entry every time, and anything not saved yet is saved when the
+     * editor is left. The save button saves right away and closes it,
+     * or stays open and can be pressed again if the save fails.
+     */
+    public static final String EXTRA_JOURNAL_ID = "NotepadEntry.JournalId";
+    private static final String STATE_JOURNAL_ID = "NotepadEntry.StateJournalId";
+
+    private NotepadViewModel mViewModel;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_notepad_entry);
+
+        mViewModel = new ViewModelProvider(this,
+                ViewModelProvider.AndroidViewModelFactory.getInstance(getApplication()))
+                .get(NotepadViewModel.class);
+
+        final Button saveBtn = findViewById(R.id.save_entry);
+        mViewModel.setOnSaveFailed(new ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                saveBtn.setEnabled(true);
+                Toast.makeText(NotepadEntry.this, "Couldn't save your entry, please try again",
+                        Toast.LENGTH_LONG).show();
+            }
+        });
+        saveBtn.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                // Only leave once the entry is stored so the journal list sees it
+                v.setEnabled(false);
+                mViewModel.saveNow(new Runnable() {
+                    @Override
+                    public void run() {
+                        finish();
+                    }
+                });
+            }
+        });
+
+        if (mViewModel.isOpen()) {
+            // Recreated after a configuration change, the views restore their own text
+            watchText();
+        } else if (savedInstanceState != null && savedInstanceState.containsKey(STATE_JOURNAL_ID)) {
+            // Recreated after the process was killed, only the id and the views' text are left
+            mViewModel.open(savedInstanceState.getInt(STATE_JOURNAL_ID, 0), null, null);
+            watchText();
+        } else if (getIntent().hasExtra(EXTRA_JOURNAL_ID)) {
+            openEntry(getIntent().getIntExtra(EXTRA_JOURNAL_ID, 0));
+        } else {
+            mViewModel.open(0, "", "");
+            watchText();
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        /**
+         * Saves what was typed since the last pause in typing, the process
+         * may be killed while the app is in the background.
+         */
+        super.onPause();
+        mViewModel.saveNow(null);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mViewModel.setOnSaveFailed(null);
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (mViewModel.isOpen()) {
+            outState.putInt(STATE_JOURNAL_ID, mViewModel.getJournalId());
+        }
+    }
+
+    private void openEntry(final int journalId) {
+        /**
+         * Loads the entry and starts editing it. The editor stays disabled
+         * until then so nothing typed is overwritten by the stored text,
+         * and so does the save button, there's nothing to save yet.
+         */
+        final EditText titleEditText = findViewById(R.id.entry_title);
+        final EditText bodyEditText = findViewById(R.id.entry_body);
+        final Button saveBtn = findViewById(R.id.save_entry);
+        titleEditText.setEnabled(false);
+        bodyEditText.setEnabled(false);
+        saveBtn.setEnabled(false);
+
+        JournalRepository.getInstance(this).getById(journalId, new ResultCallback<Journal>() {
+            @Override
+            public void onResult(Journal journal) {
+                if (isFinishing() || isDestroyed()) {
+                    return;
+                }
+
+                if (journal == null) {
+                    mViewModel.open(0, "", "");
+                } else {
+                    mViewModel.open(journal.getId(), journal.title, journal.getBodyText());
+                    titleEditText.setText(journal.title);
+                    bodyEditText.setText(journal.getBodyText());
+                }
+                titleEditText.setEnabled(true);
+                bodyEditText.setEnabled(true);
+                saveBtn.setEnabled(true);
+                watchText();
+            }
+        });
+    }
+
+    private void watchText() {
+        final EditText titleEditText = findViewById(R.id.entry_title);
+        final EditText bodyEditText = findViewById(R.id.entry_body);
+        TextWatcher watcher = new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                mViewModel.setText(titleEditText.getText().toString(),
+                        bodyEditText.getText().toString());
+            }
+        };
+        titleEditText.addTextChangedListener(watcher);
+        bodyEditText.addTextChangedListener(watcher);
+    }
+}
@@ -0,0 +1,180 @@
+package com.texastech.talk;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+
+import com.texastech.talk.database.ErrorCallback;
+import com.texastech.talk.database.Journal;
+import com.texastech.talk.database.JournalRepository;
+import com.texastech.talk.database.ResultCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NotepadViewModel extends AndroidViewModel {
+    /**
+     * The journal entry open in NotepadEntry, saved as the user types.
+     * Every change restarts a short timer and the text is only written
+     * once typing pauses for AUTOSAVE_DELAY_MILLIS, so a burst of
+     * keystrokes is a single write, and nothing is written when the text
+     * is the same as what's stored.
+     *
+     * Only one save runs at a time. A change made while one is running is
+     * saved right after it, to the id it returned, so a new entry is
+     * inserted once and updated from then on. A new entry that's still
+     * blank isn't inserted at all. The ViewModel outlives a
+     * configuration change, and whatever is left unsaved is saved when
+     * the editor is closed for good. Everything runs on the main thread.
+     *
+     * A save that fails leaves the text unsaved, so it's tried again on
+     * the next change or saveNow(). The editor is told through
+     * setOnSaveFailed() and whoever was waiting on saveNow() isn't run.
+     */
+    static final long AUTOSAVE_DELAY_MILLIS = 1000;
+
+    private final JournalRepository mRepository;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSaveRunnable = new Runnable() {
+        @Override
+        public void run() {
+            save();
+        }
+    };
+    private final List<Runnable> mOnSaved = new ArrayList<>();
+    private ErrorCallback mOnSaveFailed = null;
+
+    private boolean mOpen = false;
+    private int mJournalId = 0;
+    private String mTitle = null;
+    private String mBody = null;
+    private String mSavedTitle = null;
+    private String mSavedBody = null;
+    private boolean mSaving = false;
+    private boolean mSavePending = false;
+
+    public NotepadViewModel(@NonNull Application application) {
+        super(application);
+        mRepository = JournalRepository.getInstance(application);
+    }
+
+    boolean isOpen() {
+        return mOpen;
+    }
+
+    int getJournalId() {
+        return mJournalId;
+    }
+
+    void open(int jid, @Nullable String title, @Nullable String body) {
+        /**
+         * Starts editing the entry with id jid, 0 for a new one, whose
+         * stored text is title and body. Null means the stored text isn't
+         * known, so the first change is written whatever it is.
+         */
+        mOpen = true;
+        mJournalId = jid;
+        mTitle = mSavedTitle = title;
+        mBody = mSavedBody = body;
+    }
+
+    void setText(String title, String body) {
+        /**
+         * Called on every change in the editor, saves once typing pauses.
+         */
+        mTitle = title;
+        mBody = body;
+        mHandler.removeCallbacks(mSaveRunnable);
+        mHandler.postDelayed(mSaveRunnable, AUTOSAVE_DELAY_MILLIS);
+    }
+
+    void setOnSaveFailed(@Nullable ErrorCallback onSaveFailed) {
+        mOnSaveFailed = onSaveFailed;
+    }
+
+    void saveNow(@Nullable Runnable onSaved) {
+        /**
+         * Saves right away instead of waiting for a pause, and runs onSaved
+         * once everything typed so far is stored.
+         */
+        mHandler.removeCallbacks(mSaveRunnable);
+        if (onSaved != null) {
+            mOnSaved.add(onSaved);
+        }
+        save();
+    }
+
+    private void save() {
+        if (!mOpen) {
+            return;
+        }
+        if (mSaving) {
+            // Picked up once the running save is done
+            mSavePending = true;
+            return;
+        }
+        if (equal(mTitle, mSavedTitle) && equal(mBody, mSavedBody)) {
+            notifySaved();
+            return;
+        }
+
+        final String title = mTitle != null ? mTitle : "";
+        final String body = mBody != null ? mBody : "";
+        if (mJournalId == 0 && title.isEmpty() && body.isEmpty()) {
+            // Nothing to store for an entry that was never written
+            notifySaved();
+            return;
+        }
+
+        mSaving = true;
+        mRepository.save(mJournalId, title, body, new ResultCallback<Journal>() {
+            @Override
+            public void onResult(Journal journal) {
+                mSaving = false;
+                mJournalId = journal.getId();
+                mSavedTitle = title;
+                mSavedBody = body;
+                if (mSavePending) {
+                    mSavePending = false;
+                    save();
+                } else {
+                    notifySaved();
+                }
+            }
+        }, new ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                mSaving = false;
+                mSavePending = false;
+                mOnSaved.clear();
+                if (mOnSaveFailed != null) {
+                    mOnSaveFailed.onError(error);
+                }
+            }
+        });
+    }
+
+    private void notifySaved() {
+        List<Runnable> onSaved = new ArrayList<>(mOnSaved);
+        mOnSaved.clear();
+        for (Runnable runnable : onSaved) {
+            runnable.run();
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        // The editor is gone for good, don't wait for the pause
+        mOnSaved.clear();
+        mOnSaveFailed = null;
+        saveNow(null);
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
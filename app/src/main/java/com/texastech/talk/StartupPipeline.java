@@ -0,0 +1,142 @@
+package com.texastech.talk;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Trace;
+import android.util.Log;
+
+import com.texastech.talk.database.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StartupPipeline {
+    /**
+     * Runs the work done when the app starts as named phases. Only what the
+     * first frame needs runs right away, on the critical path. Work the UI
+     * can do without for a moment waits for the main thread's first idle
+     * moment, and work that doesn't need the main thread at all runs on the
+     * database pool.
+     *
+     * Every phase is a Trace section of the same name, so it shows up in
+     * systrace and Perfetto captures. Its duration is also logged and kept,
+     * which StartupPipelineTest uses to report the timings.
+     */
+    public static final String PHASE_CONTENT_VIEW = "startup:content_view";
+    public static final String PHASE_INTRO_CHECK = "startup:intro_check";
+    public static final String PHASE_NAVIGATION = "startup:navigation";
+    public static final String PHASE_NOTIFICATION_CHANNEL = "startup:notification_channel";
+    public static final String PHASE_ALARM = "startup:alarm";
+    public static final String PHASE_DATABASE_OPEN = "startup:database_open";
+    public static final String PHASE_STATISTICS_WARM_UP = "startup:statistics_warm_up";
+
+    public static final int CRITICAL = 0;
+    public static final int IDLE = 1;
+    public static final int BACKGROUND = 2;
+
+    private static final String TAG = "Startup";
+    // Alarm scheduling is a phase on every resume, only keep the latest ones
+    private static final int MAX_PHASES = 64;
+
+    private static StartupPipeline mSingleInstance;
+
+    private final AppExecutors mExecutors;
+    private final List<Phase> mPhases = new ArrayList<>();
+
+    public static class Phase {
+        public final String name;
+        public final int kind;
+        public final long durationNanos;
+
+        Phase(String name, int kind, long durationNanos) {
+            this.name = name;
+            this.kind = kind;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    private StartupPipeline(AppExecutors executors) {
+        mExecutors = executors;
+    }
+
+    public static StartupPipeline getInstance() {
+        if (mSingleInstance == null) {
+            synchronized (StartupPipeline.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new StartupPipeline(AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void runCritical(String name, Runnable work) {
+        /**
+         * Runs work right now, on the calling thread.
+         */
+        run(name, CRITICAL, work);
+    }
+
+    public void runWhenIdle(final String name, final Runnable work) {
+        /**
+         * Runs work on the main thread once it has nothing else to do,
+         * which during startup is after the first frame is drawn. Has to be
+         * called from the main thread.
+         */
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                run(name, IDLE, work);
+                return false;
+            }
+        });
+    }
+
+    public void runInBackground(final String name, final Runnable work) {
+        /**
+         * Runs work on the database pool.
+         */
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                StartupPipeline.this.run(name, BACKGROUND, work);
+            }
+        });
+    }
+
+    public synchronized List<Phase> getPhases() {
+        /**
+         * The phases that have finished so far, in the order they finished,
+         * up to the last MAX_PHASES.
+         */
+        return new ArrayList<>(mPhases);
+    }
+
+    synchronized void clearPhases() {
+        /**
+         * Forgets the phases of an earlier start, so getPhases() only
+         * holds the ones that finished since.
+         */
+        mPhases.clear();
+    }
+
+    private void run(String name, int kind, Runnable work) {
+        long start = System.nanoTime();
+        Trace.beginSection(name);
+        try {
+            work.run();
+        } finally {
+            Trace.endSection();
+        }
+        long duration = System.nanoTime() - start;
+
+        synchronized (this) {
+            if (mPhases.size() == MAX_PHASES) {
+                mPhases.remove(0);
+            }
+            mPhases.add(new Phase(name, kind, duration));
+        }
+        Log.d(TAG, String.format("%s took %.2f ms", name, duration / 1e6));
+    }
+}
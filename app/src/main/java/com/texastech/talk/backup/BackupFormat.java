@@ -0,0 +1,55 @@
+package com.texastech.talk.backup;
+
+public enum BackupFormat {
+    /**
+     * The file formats moods and journal entries can be exported to and
+     * imported from. Both hold one record per line with the same fields:
+     *
+     *      type    time    value    severity_level    zone_offset    title    body
+     *
+     * where type is "mood" or "journal". Moods leave title and body empty
+     * and journal entries leave value, severity_level and zone_offset
+     * empty; time is the mood's timestamp or the entry's creation time, in
+     * milliseconds. zone_offset is the offset from UTC in milliseconds of
+     * the time zone the mood was logged in. Files exported before it was
+     * added don't have it, their moods get the importing device's offset.
+     */
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    public static final String TYPE_MOOD = "mood";
+    public static final String TYPE_JOURNAL = "journal";
+
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_TIME = "time";
+    static final String FIELD_VALUE = "value";
+    static final String FIELD_SEVERITY_LEVEL = "severity_level";
+    static final String FIELD_ZONE_OFFSET = "zone_offset";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_BODY = "body";
+    static final String[] FIELDS = {
+            FIELD_TYPE, FIELD_TIME, FIELD_VALUE, FIELD_SEVERITY_LEVEL, FIELD_ZONE_OFFSET,
+            FIELD_TITLE, FIELD_BODY
+    };
+
+    public final String mimeType;
+    public final String extension;
+
+    BackupFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public static BackupFormat fromName(String name) {
+        /**
+         * Returns the format stored under name in the preferences,
+         * falling back to CSV.
+         */
+        for (BackupFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,20 @@
+package com.texastech.talk.backup;
+
+class BackupRecord {
+    /**
+     * A single mood or journal record read from an export file, see
+     * BackupFormat for what each field holds.
+     */
+    String type;
+    long time;
+    int value;
+    int severityLevel;
+    // Null if the file was exported without it
+    Integer zoneOffset;
+    String title;
+    String body;
+
+    boolean isMood() {
+        return BackupFormat.TYPE_MOOD.equals(type);
+    }
+}
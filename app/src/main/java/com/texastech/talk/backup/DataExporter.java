@@ -0,0 +1,168 @@
+package com.texastech.talk.backup;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import com.texastech.talk.database.AppDatabase;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.ErrorCallback;
+import com.texastech.talk.database.JournalBodyCodec;
+import com.texastech.talk.database.ResultCallback;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+public class DataExporter {
+    /**
+     * Exports every mood and journal entry to a file the user picked. The
+     * tables are read through raw cursors in chunks of CHUNK_SIZE rows,
+     * each chunk starting right after the last id of the previous one,
+     * and every record is written straight to a buffered stream. Only one
+     * chunk is ever held in memory, however long the history is.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Context mContext;
+    private final AppDatabase mDatabase;
+    private final AppExecutors mExecutors;
+
+    public DataExporter(Context context) {
+        mContext = context.getApplicationContext();
+        mDatabase = AppDatabase.getDatabase(mContext);
+        mExecutors = AppExecutors.getInstance();
+    }
+
+    public void export(final Uri uri, final BackupFormat format,
+                       @Nullable final ProgressListener listener,
+                       final ResultCallback<Boolean> callback) {
+        /**
+         * Writes the export to uri in the background. The callback gets
+         * whether it succeeded, including when reading the database fails.
+         */
+        mExecutors.execute(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                try {
+                    OutputStream stream = mContext.getContentResolver().openOutputStream(uri, "w");
+                    if (stream == null) {
+                        return false;
+                    }
+
+                    Writer writer = new BufferedWriter(
+                            new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+                    try {
+                        export(writer, format, listener);
+                    } finally {
+                        writer.close();
+                    }
+                    return true;
+                } catch (IOException e) {
+                    Log.e("DataExporter", "Unable to export to " + uri, e);
+                    return false;
+                }
+            }
+        }, callback, new ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                callback.onResult(false);
+            }
+        });
+    }
+
+    void export(Writer writer, BackupFormat format, @Nullable ProgressListener listener)
+            throws IOException {
+        /**
+         * Writes every record to writer. Has to run on a background thread.
+         */
+        RecordWriter records = new RecordWriter(writer, format);
+        long total = count("SELECT COUNT(*) FROM `Mood`") + count("SELECT COUNT(*) FROM `Journal`");
+        long done = 0;
+        records.writeHeader();
+
+        long lastId = -1;
+        while (true) {
+            Cursor cursor = mDatabase.query(new SimpleSQLiteQuery(
+                    "SELECT `mid`, `timestamp`, `value`, `severity_level`, `zone_offset` FROM `Mood` "
+                    + "WHERE `mid` > ? ORDER BY `mid` LIMIT ?", new Object[]{lastId, CHUNK_SIZE}));
+            int rows = 0;
+            try {
+                while (cursor.moveToNext()) {
+                    lastId = cursor.getLong(0);
+                    records.writeMood(cursor.getLong(1), cursor.getInt(2), cursor.getInt(3),
+                            cursor.getInt(4));
+                    rows++;
+                }
+            } finally {
+                cursor.close();
+            }
+
+            done += rows;
+            reportProgress(listener, done, total);
+            if (rows < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        lastId = -1;
+        while (true) {
+            Cursor cursor = mDatabase.query(new SimpleSQLiteQuery(
+                    "SELECT `jid`, `created`, `title`, `body`, `body_deflated`, `compressed` "
+                    + "FROM `Journal` WHERE `jid` > ? ORDER BY `jid` LIMIT ?",
+                    new Object[]{lastId, CHUNK_SIZE}));
+            int rows = 0;
+            try {
+                while (cursor.moveToNext()) {
+                    lastId = cursor.getLong(0);
+                    String body = cursor.getInt(5) != 0
+                            ? JournalBodyCodec.inflate(cursor.getBlob(4))
+                            : cursor.getString(3);
+                    records.writeJournal(cursor.getLong(1), cursor.getString(2), body);
+                    rows++;
+                }
+            } finally {
+                cursor.close();
+            }
+
+            done += rows;
+            reportProgress(listener, done, total);
+            if (rows < CHUNK_SIZE) {
+                break;
+            }
+        }
+    }
+
+    private long count(String query) {
+        Cursor cursor = mDatabase.query(new SimpleSQLiteQuery(query));
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void reportProgress(@Nullable final ProgressListener listener,
+                                final long done, final long total) {
+        if (listener == null) {
+            return;
+        }
+
+        mExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onProgress(done, total);
+            }
+        });
+    }
+}
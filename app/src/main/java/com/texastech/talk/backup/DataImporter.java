@@ -0,0 +1,295 @@
+package com.texastech.talk.backup;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.texastech.talk.database.AppDatabase;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.ErrorCallback;
+import com.texastech.talk.database.ImportCheckpoint;
+import com.texastech.talk.database.ImportCheckpointDao;
+import com.texastech.talk.database.Journal;
+import com.texastech.talk.database.JournalDao;
+import com.texastech.talk.database.JournalRepository;
+import com.texastech.talk.database.Mood;
+import com.texastech.talk.database.MoodDao;
+import com.texastech.talk.database.MoodRepository;
+import com.texastech.talk.database.ResultCallback;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+public class DataImporter {
+    /**
+     * Loads an export written by DataExporter back into the database. The
+     * file is parsed as a stream and written BATCH_SIZE records at a time,
+     * each batch in its own transaction on the database pool.
+     *
+     * Records already in the database are skipped: a mood is identified
+     * by its timestamp and a journal entry by its title and creation time,
+     * both of which are looked up through an index. Along with each batch
+     * an ImportCheckpoint records how far into the file the import got, so
+     * importing the same file again after a crash picks up right after the
+     * last committed batch.
+     */
+    static final int BATCH_SIZE = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Context mContext;
+    private final AppDatabase mDatabase;
+    private final AppExecutors mExecutors;
+    private final MoodRepository mMoodRepository;
+    private final JournalRepository mJournalRepository;
+
+    public DataImporter(Context context) {
+        mContext = context.getApplicationContext();
+        mDatabase = AppDatabase.getDatabase(mContext);
+        mExecutors = AppExecutors.getInstance();
+        mMoodRepository = MoodRepository.getInstance(mContext);
+        mJournalRepository = JournalRepository.getInstance(mContext);
+    }
+
+    public static class Result {
+        /**
+         * What an import did, success is false if it stopped early.
+         */
+        public boolean success;
+        public int imported;
+        public int duplicates;
+    }
+
+    public void getPendingImport(final ResultCallback<ImportCheckpoint> callback) {
+        /**
+         * Returns the checkpoint of an import that didn't finish, or null.
+         */
+        mExecutors.execute(new Callable<ImportCheckpoint>() {
+            @Override
+            public ImportCheckpoint call() {
+                return mDatabase.importCheckpointDao().getPending();
+            }
+        }, callback);
+    }
+
+    public void importFrom(final Uri uri, @Nullable final BackupFormat format,
+                           @Nullable final ProgressListener listener,
+                           final ResultCallback<Result> callback) {
+        /**
+         * Imports the file at uri in the background. Without a format it's
+         * guessed from the file name. Progress is reported in bytes of the
+         * file read, the total is -1 if it isn't known.
+         *
+         * If writing to the database fails the callback still gets the
+         * result, unsuccessful, counting the batches committed before.
+         */
+        final Result result = new Result();
+        mExecutors.execute(new Callable<Result>() {
+            @Override
+            public Result call() {
+                try {
+                    InputStream stream = mContext.getContentResolver().openInputStream(uri);
+                    if (stream == null) {
+                        return result;
+                    }
+
+                    String[] columns = {OpenableColumns.DISPLAY_NAME, OpenableColumns.SIZE};
+                    String name = null;
+                    long size = -1;
+                    Cursor cursor = mContext.getContentResolver().query(uri, columns, null, null, null);
+                    if (cursor != null) {
+                        try {
+                            if (cursor.moveToFirst()) {
+                                name = cursor.getString(0);
+                                size = cursor.isNull(1) ? -1 : cursor.getLong(1);
+                            }
+                        } finally {
+                            cursor.close();
+                        }
+                    }
+
+                    BackupFormat fileFormat = format != null ? format : guessFormat(name);
+                    CountingInputStream counted = new CountingInputStream(stream);
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(counted, StandardCharsets.UTF_8), BUFFER_SIZE);
+                    try {
+                        importFrom(new RecordReader(reader, fileFormat), counted, size,
+                                uri.toString(), fileFormat, listener, result);
+                    } finally {
+                        reader.close();
+                    }
+                    result.success = true;
+                } catch (IOException | SecurityException e) {
+                    Log.e("DataImporter", "Unable to import " + uri, e);
+                }
+                return result;
+            }
+        }, callback, new ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                result.success = false;
+                callback.onResult(result);
+            }
+        });
+    }
+
+    private void importFrom(RecordReader records, CountingInputStream counted, long totalBytes,
+                            String source, BackupFormat format,
+                            @Nullable ProgressListener listener, Result result)
+            throws IOException {
+        ImportCheckpoint checkpoint = mDatabase.importCheckpointDao().get(source);
+        long skip = checkpoint != null ? checkpoint.records : 0;
+        long read = 0;
+
+        List<BackupRecord> batch = new ArrayList<>(BATCH_SIZE);
+        BackupRecord record;
+        while ((record = records.next()) != null) {
+            read++;
+            if (read <= skip) {
+                // Already committed before the import was interrupted
+                continue;
+            }
+
+            batch.add(record);
+            if (batch.size() == BATCH_SIZE) {
+                commit(batch, source, format, read, false, result);
+                batch.clear();
+                reportProgress(listener, counted.getCount(), totalBytes);
+            }
+        }
+
+        commit(batch, source, format, read, true, result);
+        reportProgress(listener, counted.getCount(), totalBytes);
+    }
+
+    private void commit(final List<BackupRecord> batch, final String source,
+                        final BackupFormat format, final long read, final boolean last,
+                        final Result result) {
+        /**
+         * Writes the new records of a batch along with the checkpoint, or
+         * deletes the checkpoint if it's the last batch, in one transaction.
+         * It goes through MoodRepository since the moods are written with it.
+         */
+        mMoodRepository.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                MoodDao moodDao = mDatabase.moodDao();
+                JournalDao journalDao = mDatabase.journalDao();
+                ImportCheckpointDao checkpointDao = mDatabase.importCheckpointDao();
+
+                // The batch can repeat itself too, not just the database
+                Set<Long> moodTimes = new HashSet<>();
+                Set<String> journalKeys = new HashSet<>();
+                List<Mood> moods = new ArrayList<>();
+                List<Journal> journals = new ArrayList<>();
+                for (BackupRecord record : batch) {
+                    if (record.isMood()) {
+                        if (moodTimes.add(record.time) && moodDao.countAt(record.time) == 0) {
+                            Mood mood = new Mood(record.time, record.value, record.severityLevel);
+                            if (record.zoneOffset != null) {
+                                // Where it was logged, not where it's imported
+                                mood.zoneOffset = record.zoneOffset;
+                            }
+                            moods.add(mood);
+                        } else {
+                            result.duplicates++;
+                        }
+                    } else {
+                        if (journalKeys.add(record.time + "\u0000" + record.title)
+                                && journalDao.countMatching(record.time, record.title) == 0) {
+                            journals.add(new Journal(record.title, record.body, record.time));
+                        } else {
+                            result.duplicates++;
+                        }
+                    }
+                }
+
+                if (!moods.isEmpty()) {
+                    mMoodRepository.insertAll(moods);
+                }
+                if (!journals.isEmpty()) {
+                    mJournalRepository.insertAll(journals);
+                }
+                result.imported += moods.size() + journals.size();
+
+                if (last) {
+                    checkpointDao.delete(source);
+                } else {
+                    checkpointDao.upsert(new ImportCheckpoint(source, format.name(), read));
+                }
+            }
+        });
+    }
+
+    static BackupFormat guessFormat(@Nullable String fileName) {
+        if (fileName != null) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl") || lower.endsWith(".json")) {
+                return BackupFormat.NDJSON;
+            }
+        }
+        return BackupFormat.CSV;
+    }
+
+    private void reportProgress(@Nullable final ProgressListener listener,
+                                final long done, final long total) {
+        if (listener == null) {
+            return;
+        }
+
+        mExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onProgress(done, total);
+            }
+        });
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        /**
+         * Counts the bytes read so progress can be reported against the
+         * size of the file.
+         */
+        private long mCount = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return mCount;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                mCount++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                mCount += count;
+            }
+            return count;
+        }
+    }
+}
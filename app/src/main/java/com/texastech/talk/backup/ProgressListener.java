@@ -0,0 +1,9 @@
+package com.texastech.talk.backup;
+
+public interface ProgressListener {
+    /**
+     * Reports how many of the total records an export or import has
+     * processed so far. Always called on the main thread.
+     */
+    void onProgress(long done, long total);
+}
@@ -0,0 +1,168 @@
+package com.texastech.talk.backup;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class RecordReader {
+    /**
+     * Reads the records written by RecordWriter back one at a time, so an
+     * export of any size can be imported without loading it into memory.
+     * CSV fields may be quoted and span several lines, as in RFC 4180.
+     */
+    private final BufferedReader mReader;
+    private final BackupFormat mFormat;
+    private Map<String, Integer> mColumns;
+    private long mLine = 0;
+
+    RecordReader(BufferedReader reader, BackupFormat format) {
+        mReader = reader;
+        mFormat = format;
+    }
+
+    BackupRecord next() throws IOException {
+        /**
+         * Returns the next record, or null at the end of the file.
+         */
+        return mFormat == BackupFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    private BackupRecord nextJson() throws IOException {
+        String line;
+        do {
+            line = mReader.readLine();
+            mLine++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.trim().isEmpty());
+
+        try {
+            JSONObject json = new JSONObject(line);
+            BackupRecord record = new BackupRecord();
+            record.type = json.getString(BackupFormat.FIELD_TYPE);
+            record.time = json.getLong(BackupFormat.FIELD_TIME);
+            record.value = json.optInt(BackupFormat.FIELD_VALUE);
+            record.severityLevel = json.optInt(BackupFormat.FIELD_SEVERITY_LEVEL);
+            if (json.has(BackupFormat.FIELD_ZONE_OFFSET)) {
+                record.zoneOffset = json.getInt(BackupFormat.FIELD_ZONE_OFFSET);
+            }
+            record.title = json.isNull(BackupFormat.FIELD_TITLE)
+                    ? null : json.getString(BackupFormat.FIELD_TITLE);
+            record.body = json.isNull(BackupFormat.FIELD_BODY)
+                    ? null : json.getString(BackupFormat.FIELD_BODY);
+            return validate(record);
+        } catch (JSONException e) {
+            throw new IOException("Malformed record on line " + mLine, e);
+        }
+    }
+
+    private BackupRecord nextCsv() throws IOException {
+        if (mColumns == null) {
+            List<String> header = readCsvRow();
+            if (header == null) {
+                return null;
+            }
+            mColumns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                mColumns.put(header.get(i).trim(), i);
+            }
+        }
+
+        List<String> row;
+        do {
+            row = readCsvRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+
+        try {
+            BackupRecord record = new BackupRecord();
+            record.type = field(row, BackupFormat.FIELD_TYPE);
+            record.time = Long.parseLong(field(row, BackupFormat.FIELD_TIME));
+            if (record.isMood()) {
+                record.value = Integer.parseInt(field(row, BackupFormat.FIELD_VALUE));
+                record.severityLevel = Integer.parseInt(field(row, BackupFormat.FIELD_SEVERITY_LEVEL));
+                String zoneOffset = field(row, BackupFormat.FIELD_ZONE_OFFSET);
+                if (!zoneOffset.isEmpty()) {
+                    record.zoneOffset = Integer.parseInt(zoneOffset);
+                }
+            }
+            record.title = field(row, BackupFormat.FIELD_TITLE);
+            record.body = field(row, BackupFormat.FIELD_BODY);
+            return validate(record);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed record on line " + mLine, e);
+        }
+    }
+
+    private String field(List<String> row, String name) {
+        Integer column = mColumns.get(name);
+        return column != null && column < row.size() ? row.get(column) : "";
+    }
+
+    private List<String> readCsvRow() throws IOException {
+        /**
+         * Returns the fields of the next row, or null at the end of the file.
+         */
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        while (true) {
+            int c = mReader.read();
+            if (c == -1) {
+                if (empty) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            empty = false;
+            if (quoted) {
+                if (c == '"') {
+                    // A doubled quote is a literal quote, anything else ends the field
+                    mReader.mark(1);
+                    if (mReader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        mReader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        mLine++;
+                    }
+                    field.append((char)c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                mLine++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char)c);
+            }
+        }
+    }
+
+    private BackupRecord validate(BackupRecord record) throws IOException {
+        if (!BackupFormat.TYPE_MOOD.equals(record.type)
+                && !BackupFormat.TYPE_JOURNAL.equals(record.type)) {
+            throw new IOException("Unknown record type on line " + mLine + ": " + record.type);
+        }
+        return record;
+    }
+}
@@ -0,0 +1,91 @@
+package com.texastech.talk.backup;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+
+class RecordWriter {
+    /**
+     * Writes mood and journal records in one of the BackupFormats, one
+     * record per line. Nothing is kept between records.
+     */
+    private final Writer mWriter;
+    private final BackupFormat mFormat;
+
+    RecordWriter(Writer writer, BackupFormat format) {
+        mWriter = writer;
+        mFormat = format;
+    }
+
+    void writeHeader() throws IOException {
+        if (mFormat == BackupFormat.CSV) {
+            for (int i = 0; i < BackupFormat.FIELDS.length; i++) {
+                if (i > 0) {
+                    mWriter.write(',');
+                }
+                mWriter.write(BackupFormat.FIELDS[i]);
+            }
+            mWriter.write('\n');
+        }
+    }
+
+    void writeMood(long timestamp, int value, int severityLevel, int zoneOffset)
+            throws IOException {
+        if (mFormat == BackupFormat.CSV) {
+            mWriter.write(BackupFormat.TYPE_MOOD + "," + timestamp + "," + value + ","
+                    + severityLevel + "," + zoneOffset + ",,\n");
+        } else {
+            mWriter.write("{\"" + BackupFormat.FIELD_TYPE + "\":\"" + BackupFormat.TYPE_MOOD
+                    + "\",\"" + BackupFormat.FIELD_TIME + "\":" + timestamp
+                    + ",\"" + BackupFormat.FIELD_VALUE + "\":" + value
+                    + ",\"" + BackupFormat.FIELD_SEVERITY_LEVEL + "\":" + severityLevel
+                    + ",\"" + BackupFormat.FIELD_ZONE_OFFSET + "\":" + zoneOffset + "}\n");
+        }
+    }
+
+    void writeJournal(long created, String title, String body) throws IOException {
+        if (mFormat == BackupFormat.CSV) {
+            mWriter.write(BackupFormat.TYPE_JOURNAL + "," + created + ",,,,");
+            writeCsvField(title);
+            mWriter.write(',');
+            writeCsvField(body);
+            mWriter.write('\n');
+        } else {
+            mWriter.write("{\"" + BackupFormat.FIELD_TYPE + "\":\"" + BackupFormat.TYPE_JOURNAL
+                    + "\",\"" + BackupFormat.FIELD_TIME + "\":" + created
+                    + ",\"" + BackupFormat.FIELD_TITLE + "\":");
+            writeJsonString(title);
+            mWriter.write(",\"" + BackupFormat.FIELD_BODY + "\":");
+            writeJsonString(body);
+            mWriter.write("}\n");
+        }
+    }
+
+    private void writeCsvField(String field) throws IOException {
+        /**
+         * Quotes the field if it has a comma, quote or line break in it,
+         * doubling any quotes, as described in RFC 4180.
+         */
+        if (field == null) {
+            return;
+        }
+
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            mWriter.write('"');
+            mWriter.write(field.replace("\"", "\"\""));
+            mWriter.write('"');
+        } else {
+            mWriter.write(field);
+        }
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        mWriter.write(value == null ? "null" : JSONObject.quote(value));
+    }
+}
@@ -6,7 +6,8 @@ import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 
-@Database(entities = {Mood.class, Resources.class, Journal.class, Music.class}, version = 1)
+@Database(entities = {Mood.class, Resources.class, Journal.class, Music.class,
+        CatalogInfo.class, JournalFts.class, MoodRollup.class, ImportCheckpoint.class}, version = 11, exportSchema = true)
 public abstract class AppDatabase extends RoomDatabase {
     /**
      * The app's "single source of truth" is this database used
@@ -25,21 +26,29 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract MusicDao MusicDao();
 
+    public abstract MoodRollupDao moodRollupDao();
+
+    public abstract ImportCheckpointDao importCheckpointDao();
+
     public static AppDatabase getDatabase(final Context context) {
         /**
          * Returns the single instance of the database that lives
          * across the lifetime of teh application. AppDatabase
          * objects are expensive so only one instance should exist.
          *
-         * TODO: Disable the allowing on the main thread and create
-         *  a separate class for asynchronous operations.
+         * Queries are not allowed on the main thread, Room will throw if
+         * one is attempted. Use the repositories, which run everything
+         * on AppExecutors.diskIO(), instead of calling the Daos directly.
          */
         if (mSingleInstance == null) {
             synchronized (AppDatabase.class) {
                 if (mSingleInstance == null) {
                     mSingleInstance = Room.databaseBuilder(
                             context.getApplicationContext(), AppDatabase.class, DATABASE_NAME)
-                            .allowMainThreadQueries()
+                            .setQueryExecutor(AppExecutors.getInstance().diskIO())
+                            .addMigrations(Migrations.ALL)
+                            .addCallback(new CatalogSeeder(context))
+                            .addCallback(new JournalIndex())
                             .build();
                 }
             }
@@ -0,0 +1,161 @@
+package com.texastech.talk.database;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AppExecutors {
+    /**
+     * Executors shared across the whole app. All database work runs on
+     * a small, fixed pool of background threads so that bursts of
+     * queries queue up instead of spawning a thread each, and results
+     * are handed back to the main thread where it's safe to touch views.
+     *
+     * Decoding pictures gets a thread of its own, so scrolling through
+     * artwork never holds up a query behind it or the other way round.
+     */
+    private static final int DISK_IO_THREADS = 2;
+    private static final int DECODE_THREADS = 1;
+    private static AppExecutors mSingleInstance;
+
+    private final ExecutorService mDiskIO;
+    private final ExecutorService mDecode;
+    private final Executor mMainThread;
+
+    AppExecutors(ExecutorService diskIO, ExecutorService decode, Executor mainThread) {
+        mDiskIO = diskIO;
+        mDecode = decode;
+        mMainThread = mainThread;
+    }
+
+    public static AppExecutors getInstance() {
+        if (mSingleInstance == null) {
+            synchronized (AppExecutors.class) {
+                if (mSingleInstance == null) {
+                    ThreadPoolExecutor diskIO = new ThreadPoolExecutor(
+                            DISK_IO_THREADS, DISK_IO_THREADS,
+                            30, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(),
+                            new NamedThreadFactory("db-io"));
+                    diskIO.allowCoreThreadTimeOut(true);
+                    ThreadPoolExecutor decode = new ThreadPoolExecutor(
+                            DECODE_THREADS, DECODE_THREADS,
+                            30, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(),
+                            new NamedThreadFactory("decode"));
+                    decode.allowCoreThreadTimeOut(true);
+                    mSingleInstance = new AppExecutors(diskIO, decode, new MainThreadExecutor());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public ExecutorService diskIO() {
+        return mDiskIO;
+    }
+
+    public ExecutorService decode() {
+        return mDecode;
+    }
+
+    public Executor mainThread() {
+        return mMainThread;
+    }
+
+    public <T> void execute(@NonNull final Callable<T> query,
+                            @Nullable final ResultCallback<T> callback) {
+        execute(query, callback, null);
+    }
+
+    public <T> void execute(@NonNull final Callable<T> query,
+                            @Nullable final ResultCallback<T> callback,
+                            @Nullable final ErrorCallback onError) {
+        /**
+         * Runs the query on the database pool and, if a callback was
+         * given, delivers the result to it on the main thread.
+         *
+         * If the query throws, the exception goes to onError on the main
+         * thread instead and the callback isn't called. Without onError
+         * it's only logged, a failed query never takes the app down.
+         */
+        execute(mDiskIO, query, callback, onError);
+    }
+
+    public <T> void execute(@NonNull Executor executor,
+                            @NonNull final Callable<T> query,
+                            @Nullable final ResultCallback<T> callback,
+                            @Nullable final ErrorCallback onError) {
+        /**
+         * Like execute() on the database pool, but runs the query on one
+         * of the other executors, such as decode().
+         */
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final T result;
+                try {
+                    result = query.call();
+                } catch (final Exception e) {
+                    Log.e("AppExecutors", "Background query failed", e);
+                    if (onError != null) {
+                        mMainThread.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                onError.onError(e);
+                            }
+                        });
+                    }
+                    return;
+                }
+
+                if (callback != null) {
+                    mMainThread.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onResult(result);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mHandler.post(command);
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String mPrefix;
+        private final AtomicInteger mCount = new AtomicInteger(1);
+
+        NamedThreadFactory(String prefix) {
+            mPrefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, mPrefix + "-" + mCount.getAndIncrement());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.texastech.talk.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "catalog_info")
+public class CatalogInfo {
+    /**
+     * Single-row table recording which version of the bundled
+     * Resources/Music catalog is currently loaded in the database.
+     * It lets CatalogSeeder tell whether the catalog needs to be
+     * loaded or replaced without looking at the catalog tables.
+     *
+     * --------------------
+     * | id | version     |
+     * --------------------
+     * | 0  | 1           |
+     * --------------------
+     */
+    public static final int ROW_ID = 0;
+
+    @PrimaryKey
+    public int id;
+
+    @ColumnInfo(name = "version")
+    public int version;
+
+    public CatalogInfo(int id, int version) {
+        this.id = id;
+        this.version = version;
+    }
+}
@@ -0,0 +1,131 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public class CatalogSeeder extends RoomDatabase.Callback {
+    /**
+     * Loads the Resources and Music catalogs that ship with the app in
+     * assets/catalog into the database. The catalog is loaded once, in a
+     * single transaction, when the database is created, and replaced in
+     * place whenever CATALOG_VERSION is bumped. Opening an up to date
+     * database only costs a single-row lookup in catalog_info.
+     *
+     * Each catalog file is tab-separated with a header row:
+     *
+     *      mood    title    content    hyperlink
+     *
+     * The Resources file has a fifth helpline column, 1 for helplines.
+     *
+     * Bump CATALOG_VERSION whenever one of the files changes.
+     */
+    public static final int CATALOG_VERSION = 2;
+
+    static final String RESOURCES_ASSET = "catalog/resources.tsv";
+    static final String MUSIC_ASSET = "catalog/music.tsv";
+
+    private final Context mContext;
+
+    CatalogSeeder(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    @Override
+    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+        seedIfNeeded(db);
+    }
+
+    @Override
+    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        seedIfNeeded(db);
+    }
+
+    void seedIfNeeded(SupportSQLiteDatabase db) {
+        /**
+         * Replaces the catalog tables with the bundled catalog if the
+         * loaded version is older than the one shipped with the app.
+         */
+        if (getLoadedVersion(db) >= CATALOG_VERSION) {
+            return;
+        }
+
+        db.beginTransaction();
+        try {
+            // Earlier versions seeded on every launch so drop any duplicates too
+            db.execSQL("DELETE FROM `Resources`");
+            db.execSQL("DELETE FROM `Music`");
+            loadAsset(db, RESOURCES_ASSET, "Resources", true);
+            loadAsset(db, MUSIC_ASSET, "Music", false);
+            db.execSQL("INSERT OR REPLACE INTO `catalog_info` (`id`, `version`) VALUES (?, ?)",
+                    new Object[]{CatalogInfo.ROW_ID, CATALOG_VERSION});
+            db.setTransactionSuccessful();
+        } catch (IOException e) {
+            // Keep whatever catalog was there, we'll try again on the next open
+            Log.e("CatalogSeeder", "Unable to load the bundled catalog", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private int getLoadedVersion(SupportSQLiteDatabase db) {
+        Cursor cursor = db.query("SELECT `version` FROM `catalog_info` WHERE `id` = ?",
+                new Object[]{CatalogInfo.ROW_ID});
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void loadAsset(SupportSQLiteDatabase db, String asset, String table,
+                           boolean helplines) throws IOException {
+        /**
+         * Bulk inserts every row of the catalog file using one compiled statement.
+         */
+        SupportSQLiteStatement insert = db.compileStatement(helplines
+                ? "INSERT INTO `" + table + "` (`mood`, `title`, `content`, `hyperlink`, `helpline`) "
+                        + "VALUES (?, ?, ?, ?, ?)"
+                : "INSERT INTO `" + table + "` (`mood`, `title`, `content`, `hyperlink`) "
+                        + "VALUES (?, ?, ?, ?)");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                mContext.getAssets().open(asset), StandardCharsets.UTF_8));
+        try {
+            // Skip the header
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                String[] fields = line.split("\t", -1);
+                insert.bindLong(1, Integer.parseInt(fields[0]));
+                insert.bindString(2, fields[1]);
+                insert.bindString(3, fields[2]);
+                insert.bindString(4, fields[3]);
+                if (helplines) {
+                    insert.bindLong(5, fields.length > 4 && fields[4].equals("1") ? 1 : 0);
+                }
+                insert.executeInsert();
+                insert.clearBindings();
+            }
+        } finally {
+            reader.close();
+            try {
+                insert.close();
+            } catch (IOException ignored) {
+                // Nothing to do, the statement is released with the transaction
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.texastech.talk.database;
+
+public interface ErrorCallback {
+    /**
+     * Receives the exception thrown by a query that ran in the background,
+     * in place of its result. Like ResultCallback this is always called on
+     * the main thread.
+     */
+    void onError(Exception error);
+}
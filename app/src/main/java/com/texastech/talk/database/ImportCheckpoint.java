@@ -0,0 +1,38 @@
+package com.texastech.talk.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "import_checkpoint")
+public class ImportCheckpoint {
+    /**
+     * Progress of an import that hasn't finished yet. The row is written
+     * in the same transaction as each batch of imported records, so after
+     * a crash it says exactly how many records of the file are already in
+     * the database. It's deleted along with the last batch.
+     *
+     * ------------------------------------------------------
+     * | Source                          | Format | Records |
+     * ------------------------------------------------------
+     * | content://.../happyminds.csv    | CSV    | 12000   |
+     * ------------------------------------------------------
+     */
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "source")
+    public String source;
+
+    @ColumnInfo(name = "format")
+    public String format;
+
+    @ColumnInfo(name = "records")
+    public long records;
+
+    public ImportCheckpoint(@NonNull String source, String format, long records) {
+        this.source = source;
+        this.format = format;
+        this.records = records;
+    }
+}
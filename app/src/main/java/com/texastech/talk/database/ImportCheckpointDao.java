@@ -0,0 +1,21 @@
+package com.texastech.talk.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface ImportCheckpointDao {
+    @Query("SELECT * FROM import_checkpoint WHERE source = :source")
+    ImportCheckpoint get(String source);
+
+    @Query("SELECT * FROM import_checkpoint LIMIT 1")
+    ImportCheckpoint getPending();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ImportCheckpoint checkpoint);
+
+    @Query("DELETE FROM import_checkpoint WHERE source = :source")
+    void delete(String source);
+}
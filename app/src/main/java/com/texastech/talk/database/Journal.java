@@ -1,22 +1,84 @@
-package com.texastech.talk.database;
-
-import androidx.room.ColumnInfo;
-import androidx.room.Entity;
-import androidx.room.PrimaryKey;
-
-@Entity
-public class Journal {
-    @PrimaryKey(autoGenerate = true)
-    int jid;
-
-    @ColumnInfo(name = "title")
-    public String title;
-
-    @ColumnInfo(name = "body")
-    public String body;
-
-    public Journal(String title, String body) {
-        this.title = title;
-        this.body = body;
-    }
-}
+package com.texastech.talk.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+@Entity(indices = {@Index({"created", "jid"})})
+public class Journal {
+    /**
+     * A single journal entry. The list of entries is paged by
+     * (created, jid), newest first, so that pair is indexed.
+     *
+     * Long bodies are stored deflated in body_deflated with the
+     * compressed flag set and body left null, see JournalBodyCodec.
+     * Use getBodyText() and setBodyText() rather than the columns;
+     * a compressed body is only inflated the first time it's read.
+     */
+    @PrimaryKey(autoGenerate = true)
+    int jid;
+
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "body")
+    String body;
+
+    @ColumnInfo(name = "body_deflated", typeAffinity = ColumnInfo.BLOB)
+    byte[] bodyDeflated;
+
+    @ColumnInfo(name = "compressed")
+    boolean compressed;
+
+    @ColumnInfo(name = "created")
+    public long created;
+
+    @Ignore
+    private String mBodyText;
+
+    Journal(int jid, String title, String body, byte[] bodyDeflated,
+            boolean compressed, long created) {
+        this.jid = jid;
+        this.title = title;
+        this.body = body;
+        this.bodyDeflated = bodyDeflated;
+        this.compressed = compressed;
+        this.created = created;
+    }
+
+    @Ignore
+    public Journal(String title, String body, long created) {
+        this.title = title;
+        this.created = created;
+        setBodyText(body);
+    }
+
+    @Ignore
+    public Journal(String title, String body) {
+        this(title, body, System.currentTimeMillis());
+    }
+
+    public int getId() {
+        return jid;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public String getBodyText() {
+        if (mBodyText == null) {
+            mBodyText = compressed ? JournalBodyCodec.inflate(bodyDeflated) : body;
+        }
+        return mBodyText;
+    }
+
+    public void setBodyText(String text) {
+        bodyDeflated = JournalBodyCodec.compressIfWorthIt(text);
+        compressed = bodyDeflated != null;
+        body = compressed ? null : text;
+        mBodyText = text;
+    }
+}
@@ -0,0 +1,73 @@
+package com.texastech.talk.database;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class JournalBodyCodec {
+    /**
+     * Deflate compression for long journal bodies. Short entries compress
+     * poorly and are read often by the editor, so only bodies of at least
+     * COMPRESSION_THRESHOLD bytes of UTF-8 are compressed, and only when
+     * that actually saves space.
+     */
+    public static final int COMPRESSION_THRESHOLD = 2048;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    public static byte[] compressIfWorthIt(String text) {
+        /**
+         * Returns the deflated body, or null if it should be stored as is.
+         */
+        if (text == null) {
+            return null;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < COMPRESSION_THRESHOLD) {
+            return null;
+        }
+
+        byte[] deflated = deflate(raw);
+        return deflated.length < raw.length ? deflated : null;
+    }
+
+    public static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String inflate(byte[] deflated) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 3);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated journal body");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt journal body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,23 +1,55 @@
-package com.texastech.talk.database;
-
-import androidx.room.Dao;
-import androidx.room.Delete;
-import androidx.room.Insert;
-import androidx.room.Query;
-
-import java.util.List;
-
-@Dao
-public interface JournalDao {
-    @Query("SELECT * FROM journal")
-    List<Journal> getAll();
-
-    @Insert
-    void insert(Journal journal);
-
-    @Insert
-    void insertAll(Journal... journals);
-
-    @Delete
-    void delete(Journal journal);
-}
+package com.texastech.talk.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import java.util.List;
+
+@Dao
+public abstract class JournalDao {
+    /**
+     * The summaries are paged with a keyset on (created, jid), newest
+     * first. A page starts right after the last summary of the previous
+     * one, so each page is a range scan on the index whatever its depth.
+     *
+     * Searching is done in two steps, see JournalRepository.search():
+     * searchHits() only reads the full-text index to rank every match,
+     * then getByIds() reads the best few to build their snippets.
+     *
+     * The writes don't touch the full-text index, so they're package
+     * private and only JournalRepository calls them, updating both in
+     * one transaction.
+     */
+    @Query("SELECT * FROM journal")
+    public abstract List<Journal> getAll();
+
+    @Query("SELECT * FROM journal WHERE jid = :jid")
+    public abstract Journal getById(int jid);
+
+    @Query("SELECT jid, title, created FROM journal ORDER BY created DESC, jid DESC LIMIT :limit")
+    public abstract List<JournalSummary> getSummaries(int limit);
+
+    @Query("SELECT jid, title, created FROM journal "
+            + "WHERE created <= :created AND (created < :created OR jid < :jid) "
+            + "ORDER BY created DESC, jid DESC LIMIT :limit")
+    public abstract List<JournalSummary> getSummariesAfter(long created, int jid, int limit);
+
+    @Query("SELECT rowid AS jid, matchinfo(journal_fts, '" + JournalSearchRanker.MATCHINFO_FORMAT
+            + "') AS matchinfo "
+            + "FROM journal_fts WHERE journal_fts MATCH :query")
+    public abstract List<JournalSearchHit> searchHits(String query);
+
+    @Query("SELECT * FROM journal WHERE jid IN (:jids)")
+    public abstract List<Journal> getByIds(List<Integer> jids);
+
+    @Query("SELECT COUNT(*) FROM journal WHERE created = :created AND title IS :title")
+    public abstract int countMatching(long created, String title);
+
+    @Insert
+    abstract long insert(Journal journal);
+
+    @Update
+    abstract void update(Journal journal);
+}
@@ -0,0 +1,26 @@
+package com.texastech.talk.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+@Fts4(contentEntity = Journal.class)
+@Entity(tableName = "journal_fts")
+public class JournalFts {
+    /**
+     * Full-text index over the title and body of every journal entry.
+     * It's an external content FTS4 table, so the text itself stays in
+     * the Journal table and the index only holds the terms. The rowid
+     * of each row is the jid of the entry it indexes.
+     *
+     * Compressed bodies can't be read by SQLite, so the triggers Room
+     * generates to sync the index are dropped and JournalIndex updates
+     * it with the plain text instead, see JournalRepository. Never run
+     * the FTS4 'rebuild' command on this table.
+     */
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "body")
+    public String body;
+}
@@ -0,0 +1,50 @@
+package com.texastech.talk.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+public class JournalIndex extends RoomDatabase.Callback {
+    /**
+     * Keeps journal_fts in sync with the Journal table. Room's sync
+     * triggers read the body column straight from Journal, which is
+     * null for compressed entries, so they're dropped and every write
+     * to the journal goes through add() and remove() with the plain
+     * text, in the same transaction as the write itself.
+     */
+    static final String[] ROOM_SYNC_TRIGGERS = {
+            "room_fts_content_sync_journal_fts_BEFORE_UPDATE",
+            "room_fts_content_sync_journal_fts_BEFORE_DELETE",
+            "room_fts_content_sync_journal_fts_AFTER_UPDATE",
+            "room_fts_content_sync_journal_fts_AFTER_INSERT",
+    };
+
+    @Override
+    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+        // Room creates the triggers along with the tables on a fresh install
+        dropRoomSyncTriggers(db);
+    }
+
+    static void dropRoomSyncTriggers(SupportSQLiteDatabase db) {
+        for (String trigger : ROOM_SYNC_TRIGGERS) {
+            db.execSQL("DROP TRIGGER IF EXISTS `" + trigger + "`");
+        }
+    }
+
+    static void add(SupportSQLiteDatabase db, int jid, String title, String body) {
+        /**
+         * Indexes a new entry, or the new text of an updated one.
+         */
+        db.execSQL("INSERT INTO `journal_fts` (`docid`, `title`, `body`) VALUES (?, ?, ?)",
+                new Object[]{jid, title, body});
+    }
+
+    static void remove(SupportSQLiteDatabase db, int jid, String title, String body) {
+        /**
+         * Removes an entry from the index. FTS4 needs the exact text that
+         * was indexed to know which terms to remove.
+         */
+        db.execSQL("INSERT INTO `journal_fts` (`journal_fts`, `docid`, `title`, `body`) "
+                + "VALUES ('delete', ?, ?, ?)", new Object[]{jid, title, body});
+    }
+}
@@ -0,0 +1,216 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+public class JournalRepository {
+    /**
+     * Asynchronous access to the journal entries. Reads and writes run on
+     * the shared database pool and results come back on the main thread.
+     */
+    private static JournalRepository mSingleInstance;
+
+    private final AppDatabase mDatabase;
+    private final JournalDao mJournalDao;
+    private final AppExecutors mExecutors;
+
+    private JournalRepository(AppDatabase database, AppExecutors executors) {
+        mDatabase = database;
+        mJournalDao = database.journalDao();
+        mExecutors = executors;
+    }
+
+    public static JournalRepository getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (JournalRepository.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new JournalRepository(
+                            AppDatabase.getDatabase(context), AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void getById(final int jid, final ResultCallback<Journal> callback) {
+        /**
+         * Returns the entry with its body ready to read, a compressed body
+         * is inflated here rather than on the main thread.
+         */
+        mExecutors.execute(new Callable<Journal>() {
+            @Override
+            public Journal call() {
+                Journal journal = mJournalDao.getById(jid);
+                if (journal != null) {
+                    journal.getBodyText();
+                }
+                return journal;
+            }
+        }, callback);
+    }
+
+    public void getSummaries(@Nullable final JournalSummary after, final int limit,
+                             final ResultCallback<List<JournalSummary>> callback) {
+        /**
+         * Returns the next page of summaries, newest first, starting right
+         * after the given summary or from the top if it's null.
+         */
+        mExecutors.execute(new Callable<List<JournalSummary>>() {
+            @Override
+            public List<JournalSummary> call() {
+                if (after == null) {
+                    return mJournalDao.getSummaries(limit);
+                }
+                return mJournalDao.getSummariesAfter(after.created, after.jid, limit);
+            }
+        }, callback);
+    }
+
+    public void search(final String text, final int limit,
+                       final ResultCallback<List<JournalSearchResult>> callback) {
+        /**
+         * Searches the title and body of every entry and returns the best
+         * matches, best first. Every match is ranked straight from the
+         * full-text index and only the top few have their text read to
+         * build a snippet, so this stays fast with a very large journal.
+         */
+        mExecutors.execute(new Callable<List<JournalSearchResult>>() {
+            @Override
+            public List<JournalSearchResult> call() {
+                String query = JournalSearchRanker.toMatchQuery(text);
+                if (query == null) {
+                    return new ArrayList<>();
+                }
+
+                List<JournalSearchHit> hits = mJournalDao.searchHits(query);
+                final Map<Integer, Double> scores = new HashMap<>();
+                for (JournalSearchHit hit : hits) {
+                    scores.put(hit.jid, JournalSearchRanker.score(hit.matchinfo));
+                }
+
+                List<Integer> best = new ArrayList<>(scores.keySet());
+                Collections.sort(best, new Comparator<Integer>() {
+                    @Override
+                    public int compare(Integer a, Integer b) {
+                        return Double.compare(scores.get(b), scores.get(a));
+                    }
+                });
+                if (best.size() > limit) {
+                    best = best.subList(0, limit);
+                }
+
+                // Inflating and scanning the text is only done for the best few
+                List<JournalSearchResult> results = new ArrayList<>();
+                for (Journal journal : mJournalDao.getByIds(best)) {
+                    results.add(new JournalSearchResult(journal.jid, journal.title, journal.created,
+                            JournalSnippet.build(journal.getBodyText(), query)));
+                }
+                Collections.sort(results, new Comparator<JournalSearchResult>() {
+                    @Override
+                    public int compare(JournalSearchResult a, JournalSearchResult b) {
+                        return Double.compare(scores.get(b.jid), scores.get(a.jid));
+                    }
+                });
+                return results;
+            }
+        }, callback);
+    }
+
+    public void insert(final Journal journal, @Nullable final ResultCallback<Journal> callback) {
+        /**
+         * Stores a new entry and adds it to the full-text index in the
+         * same transaction.
+         */
+        mExecutors.execute(new Callable<Journal>() {
+            @Override
+            public Journal call() {
+                mDatabase.runInTransaction(new Runnable() {
+                    @Override
+                    public void run() {
+                        journal.jid = (int)mJournalDao.insert(journal);
+                        JournalIndex.add(mDatabase.getOpenHelper().getWritableDatabase(),
+                                journal.jid, journal.title, journal.getBodyText());
+                    }
+                });
+                return journal;
+            }
+        }, callback);
+    }
+
+    public void save(final int jid, final String title, final String body,
+                     @Nullable final ResultCallback<Journal> callback,
+                     @Nullable final ErrorCallback onError) {
+        /**
+         * Stores the text of the entry being edited. With jid 0, or if the
+         * entry is gone, a new entry is inserted, otherwise the existing
+         * one gets the new title and body and keeps its created time. The
+         * full-text index is updated in the same transaction, and nothing
+         * is written when the text hasn't changed. Returns the stored entry,
+         * whose id is the one to save to next time. If the write fails
+         * onError, if given, gets the exception instead.
+         */
+        mExecutors.execute(new Callable<Journal>() {
+            @Override
+            public Journal call() {
+                return mDatabase.runInTransaction(new Callable<Journal>() {
+                    @Override
+                    public Journal call() {
+                        SupportSQLiteDatabase db = mDatabase.getOpenHelper().getWritableDatabase();
+                        Journal journal = jid != 0 ? mJournalDao.getById(jid) : null;
+                        if (journal == null) {
+                            journal = new Journal(title, body);
+                            journal.jid = (int)mJournalDao.insert(journal);
+                            JournalIndex.add(db, journal.jid, title, body);
+                            return journal;
+                        }
+
+                        String oldBody = journal.getBodyText();
+                        if (equal(journal.title, title) && equal(oldBody, body)) {
+                            return journal;
+                        }
+
+                        JournalIndex.remove(db, journal.jid, journal.title, oldBody);
+                        journal.title = title;
+                        journal.setBodyText(body);
+                        mJournalDao.update(journal);
+                        JournalIndex.add(db, journal.jid, title, body);
+                        return journal;
+                    }
+                });
+            }
+        }, callback, onError);
+    }
+
+    public void insertAll(final List<Journal> journals) {
+        /**
+         * Stores a batch of entries and indexes them in a single
+         * transaction. This blocks, it's meant for background writers
+         * such as the importer.
+         */
+        mDatabase.runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                SupportSQLiteDatabase db = mDatabase.getOpenHelper().getWritableDatabase();
+                for (Journal journal : journals) {
+                    journal.jid = (int)mJournalDao.insert(journal);
+                    JournalIndex.add(db, journal.jid, journal.title, journal.getBodyText());
+                }
+            }
+        });
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,15 @@
+package com.texastech.talk.database;
+
+import androidx.room.ColumnInfo;
+
+public class JournalSearchHit {
+    /**
+     * A journal entry matching a full-text query along with the raw
+     * matchinfo(journal_fts, 'pcnalx') statistics used to rank it.
+     */
+    @ColumnInfo(name = "jid")
+    public int jid;
+
+    @ColumnInfo(name = "matchinfo")
+    public byte[] matchinfo;
+}
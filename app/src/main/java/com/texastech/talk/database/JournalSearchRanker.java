@@ -0,0 +1,85 @@
+package com.texastech.talk.database;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+public class JournalSearchRanker {
+    /**
+     * Scores full-text matches with Okapi BM25 using the statistics that
+     * FTS4 returns from matchinfo(journal_fts, 'pcnalx'). FTS4 has no
+     * built-in ranking, and computing it from matchinfo avoids reading
+     * the text of entries that won't make it into the results.
+     *
+     * A match in the title counts for more than a match in the body.
+     */
+    static final String MATCHINFO_FORMAT = "pcnalx";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double[] COLUMN_WEIGHTS = {2.0, 1.0};
+
+    public static double score(byte[] matchinfo) {
+        /**
+         * Returns the BM25 score of a single row, higher is better.
+         */
+        ByteBuffer buffer = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+        long rows = toUnsigned(buffer.getInt(8));
+
+        // Offsets, in ints, of the a, l and x blocks
+        int averageLengths = 3;
+        int lengths = averageLengths + columns;
+        int hits = lengths + columns;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int base = hits + 3 * (column + phrase * columns);
+                long hitsInRow = toUnsigned(buffer.getInt(4 * base));
+                long rowsWithHits = toUnsigned(buffer.getInt(4 * (base + 2)));
+                if (hitsInRow == 0) {
+                    continue;
+                }
+
+                double averageLength = Math.max(1, toUnsigned(buffer.getInt(4 * (averageLengths + column))));
+                double length = toUnsigned(buffer.getInt(4 * (lengths + column)));
+                double idf = Math.log(1 + (rows - rowsWithHits + 0.5) / (rowsWithHits + 0.5));
+                double tf = hitsInRow * (K1 + 1)
+                        / (hitsInRow + K1 * (1 - B + B * length / averageLength));
+                double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1.0;
+                score += weight * idf * tf;
+            }
+        }
+
+        return score;
+    }
+
+    public static String toMatchQuery(String text) {
+        /**
+         * Turns what the user typed into an FTS4 query where every word
+         * has to appear. Words are matched as prefixes so results show up
+         * while a word is still being typed, and anything that FTS4 would
+         * read as query syntax is dropped. Returns null if there's nothing
+         * left to search for.
+         */
+        StringBuilder query = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append(word.toLowerCase(Locale.ROOT)).append('*');
+        }
+
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    private static long toUnsigned(int value) {
+        return value & 0xffffffffL;
+    }
+}
@@ -0,0 +1,26 @@
+package com.texastech.talk.database;
+
+public class JournalSearchResult {
+    /**
+     * A ranked search result for the journal search box. The snippet is
+     * an excerpt of the entry with every matching term wrapped between
+     * MATCH_START and MATCH_END, see JournalSnippet.
+     */
+    public static final char MATCH_START = '\u0001';
+    public static final char MATCH_END = '\u0002';
+
+    public int jid;
+
+    public String title;
+
+    public long created;
+
+    public String snippet;
+
+    public JournalSearchResult(int jid, String title, long created, String snippet) {
+        this.jid = jid;
+        this.title = title;
+        this.created = created;
+        this.snippet = snippet;
+    }
+}
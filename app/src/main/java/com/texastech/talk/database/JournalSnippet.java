@@ -0,0 +1,116 @@
+package com.texastech.talk.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class JournalSnippet {
+    /**
+     * Builds the excerpt shown under a journal search result, the same way
+     * FTS4's snippet() would: a window of MAX_WORDS words starting a little
+     * before the first match, with every matching word wrapped between
+     * JournalSearchResult.MATCH_START and MATCH_END. It's done here rather
+     * than in SQL because compressed bodies can't be read by SQLite.
+     */
+    static final int MAX_WORDS = 12;
+    static final String ELLIPSIS = "...";
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int WORDS_BEFORE_MATCH = 3;
+
+    public static String build(String text, String matchQuery) {
+        /**
+         * Returns the snippet of text for a query built by
+         * JournalSearchRanker.toMatchQuery(), or null if there's no text.
+         */
+        if (text == null) {
+            return null;
+        }
+
+        List<String> prefixes = new ArrayList<>();
+        for (String term : matchQuery.split(" ")) {
+            if (!term.isEmpty()) {
+                prefixes.add(term.endsWith("*") ? term.substring(0, term.length() - 1) : term);
+            }
+        }
+
+        /**
+         * Only a fixed number of word offsets are kept however long the
+         * text is, start and end in turn: the first words, which are the
+         * snippet if nothing matches, and the latest ones, which hold the
+         * window once the first match is found.
+         */
+        int headSize = MAX_WORDS + 1;
+        int ringSize = WORDS_BEFORE_MATCH + MAX_WORDS + 1;
+        int[] head = new int[2 * headSize];
+        int[] ring = new int[2 * ringSize];
+        int seen = 0;
+        int firstMatch = -1;
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            if (seen < headSize) {
+                head[2 * seen] = matcher.start();
+                head[2 * seen + 1] = matcher.end();
+            }
+            int slot = seen % ringSize;
+            ring[2 * slot] = matcher.start();
+            ring[2 * slot + 1] = matcher.end();
+            seen++;
+            if (firstMatch < 0 && matches(text, matcher.start(), matcher.end(), prefixes)) {
+                firstMatch = seen - 1;
+            }
+
+            // One word past the window is enough to know the text goes on
+            if (firstMatch >= 0 && seen > windowStart(firstMatch) + MAX_WORDS) {
+                break;
+            }
+        }
+        if (seen == 0) {
+            return text;
+        }
+
+        int[] offsets = firstMatch >= 0 ? ring : head;
+        int slots = firstMatch >= 0 ? ringSize : headSize;
+        int start = windowStart(firstMatch);
+        int end = Math.min(seen, start + MAX_WORDS);
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        int copied = offsets[2 * (start % slots)];
+        for (int i = start; i < end; i++) {
+            int wordStart = offsets[2 * (i % slots)];
+            int wordEnd = offsets[2 * (i % slots) + 1];
+            snippet.append(text, copied, wordStart);
+            if (matches(text, wordStart, wordEnd, prefixes)) {
+                snippet.append(JournalSearchResult.MATCH_START)
+                        .append(text, wordStart, wordEnd)
+                        .append(JournalSearchResult.MATCH_END);
+            } else {
+                snippet.append(text, wordStart, wordEnd);
+            }
+            copied = wordEnd;
+        }
+        if (end < seen) {
+            snippet.append(ELLIPSIS);
+        }
+
+        return snippet.toString();
+    }
+
+    private static int windowStart(int firstMatch) {
+        return Math.max(0, firstMatch - WORDS_BEFORE_MATCH);
+    }
+
+    private static boolean matches(String text, int start, int end, List<String> prefixes) {
+        // Compared in place, a word is checked without copying it
+        for (String prefix : prefixes) {
+            if (prefix.length() <= end - start
+                    && text.regionMatches(true, start, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
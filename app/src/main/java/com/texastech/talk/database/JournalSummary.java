@@ -0,0 +1,19 @@
+package com.texastech.talk.database;
+
+import androidx.room.ColumnInfo;
+
+public class JournalSummary {
+    /**
+     * Lightweight projection of a Journal used for the journal list.
+     * It leaves out the body, which can be arbitrarily long, so a page
+     * of summaries stays small no matter what the user has written.
+     */
+    @ColumnInfo(name = "jid")
+    public int jid;
+
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "created")
+    public long created;
+}
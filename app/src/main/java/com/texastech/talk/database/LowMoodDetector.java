@@ -0,0 +1,106 @@
+package com.texastech.talk.database;
+
+public class LowMoodDetector {
+    /**
+     * Notices a run of low moods as it happens, with a one-sided CUSUM
+     * over the moods in the order they're logged. A Depressed or Sad mood
+     * scores its severity level, anything else scores nothing, and each
+     * mood adds its score minus the slack to a running sum that never
+     * goes below zero. An episode starts when the sum reaches the
+     * threshold, and a new one can only start once the sum is back to zero.
+     *
+     * With the defaults three Sad moods at the highest severity in a row
+     * start an episode, as do four at severity 4; other moods drain the
+     * sum again. A gap of more than maxGapMillis between moods starts
+     * over, a mood from a week ago says little about the next.
+     *
+     * Each mood is checked in constant time against a few fields, nothing
+     * is kept of the history. This class isn't thread safe.
+     */
+    public static final Config DEFAULT_CONFIG = new Config(2, 8, 2, 3 * 24 * 60 * 60 * 1000L);
+
+    private final Config mConfig;
+
+    private double mSum = 0;
+    private long mLastTimestamp = Long.MIN_VALUE;
+    private boolean mInEpisode = false;
+
+    public static class Config {
+        /**
+         * slack is subtracted from every mood's score, so it's the
+         * severity a low mood needs to push the sum up at all. threshold
+         * is the sum that starts an episode. Moods up to lowValueMax count
+         * as low, 2 being Sad.
+         */
+        public final double slack;
+        public final double threshold;
+        public final int lowValueMax;
+        public final long maxGapMillis;
+
+        public Config(double slack, double threshold, int lowValueMax, long maxGapMillis) {
+            this.slack = slack;
+            this.threshold = threshold;
+            this.lowValueMax = lowValueMax;
+            this.maxGapMillis = maxGapMillis;
+        }
+    }
+
+    public LowMoodDetector(Config config) {
+        mConfig = config;
+    }
+
+    public boolean add(long timestamp, int value, int severityLevel) {
+        /**
+         * Checks one mood, returning true if it starts an episode. Moods
+         * older than the last one checked are ignored.
+         */
+        if (timestamp < mLastTimestamp) {
+            return false;
+        }
+        if (mLastTimestamp != Long.MIN_VALUE && timestamp - mLastTimestamp > mConfig.maxGapMillis) {
+            reset();
+        }
+        mLastTimestamp = timestamp;
+
+        double score = value <= mConfig.lowValueMax ? severityLevel : 0;
+        mSum = Math.max(0, mSum + score - mConfig.slack);
+        if (mSum == 0) {
+            mInEpisode = false;
+        } else if (!mInEpisode && mSum >= mConfig.threshold) {
+            mInEpisode = true;
+            return true;
+        }
+        return false;
+    }
+
+    public void reset() {
+        mSum = 0;
+        mInEpisode = false;
+    }
+
+    public Config getConfig() {
+        return mConfig;
+    }
+
+    public double getSum() {
+        return mSum;
+    }
+
+    public long getLastTimestamp() {
+        return mLastTimestamp;
+    }
+
+    public boolean isInEpisode() {
+        return mInEpisode;
+    }
+
+    public void restore(double sum, long lastTimestamp, boolean inEpisode) {
+        /**
+         * Puts back the state saved from the getters, so the detector
+         * carries on across restarts without looking at old moods.
+         */
+        mSum = sum;
+        mLastTimestamp = lastTimestamp;
+        mInEpisode = inEpisode;
+    }
+}
@@ -0,0 +1,119 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+public class LowMoodMonitor {
+    /**
+     * Runs every newly logged mood through a LowMoodDetector and tells
+     * the listener, on the main thread, as soon as a low-mood episode
+     * starts so the helplines can be offered right away. If nothing is
+     * listening at that moment the episode is held until something is.
+     *
+     * Only recent moods are checked: ones older than the detector's gap,
+     * such as those coming from an import, are history and not something
+     * happening to the user now. The detector's few fields are saved to
+     * preferences after every batch, and only read back with the first
+     * one so that nothing here reads the disk on the main thread.
+     */
+    private static final String PREFERENCES = "low_mood_monitor";
+    private static final String KEY_SUM = "sum";
+    private static final String KEY_LAST_TIMESTAMP = "last_timestamp";
+    private static final String KEY_IN_EPISODE = "in_episode";
+
+    private static LowMoodMonitor mSingleInstance;
+
+    private final Context mContext;
+    private final AppExecutors mExecutors;
+    private final LowMoodDetector mDetector;
+    private Listener mListener = null;
+    private boolean mPendingEpisode = false;
+    private SharedPreferences mPreferences = null;
+
+    public interface Listener {
+        void onLowMoodEpisode();
+    }
+
+    private LowMoodMonitor(Context context, AppExecutors executors,
+                           LowMoodDetector.Config config) {
+        mContext = context;
+        mExecutors = executors;
+        mDetector = new LowMoodDetector(config);
+    }
+
+    public static LowMoodMonitor getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (LowMoodMonitor.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new LowMoodMonitor(context.getApplicationContext(),
+                            AppExecutors.getInstance(), LowMoodDetector.DEFAULT_CONFIG);
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public synchronized void setListener(@Nullable Listener listener) {
+        /**
+         * Set from the main thread. A held episode is delivered right away.
+         */
+        mListener = listener;
+        if (listener != null && mPendingEpisode) {
+            mPendingEpisode = false;
+            notifyEpisode();
+        }
+    }
+
+    synchronized void onInserted(List<Mood> moods) {
+        /**
+         * Called by MoodRepository once a batch of moods is committed,
+         * on a background thread.
+         */
+        if (mPreferences == null) {
+            mPreferences = mContext.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+            mDetector.restore(mPreferences.getFloat(KEY_SUM, 0),
+                    mPreferences.getLong(KEY_LAST_TIMESTAMP, Long.MIN_VALUE),
+                    mPreferences.getBoolean(KEY_IN_EPISODE, false));
+        }
+
+        long oldest = System.currentTimeMillis() - mDetector.getConfig().maxGapMillis;
+        boolean episode = false;
+        for (Mood mood : moods) {
+            if (mood.timestamp >= oldest) {
+                episode |= mDetector.add(mood.timestamp, mood.value, mood.severityLevel);
+            }
+        }
+
+        mPreferences.edit()
+                .putFloat(KEY_SUM, (float)mDetector.getSum())
+                .putLong(KEY_LAST_TIMESTAMP, mDetector.getLastTimestamp())
+                .putBoolean(KEY_IN_EPISODE, mDetector.isInEpisode())
+                .apply();
+
+        if (episode) {
+            notifyEpisode();
+        }
+    }
+
+    private void notifyEpisode() {
+        mExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                Listener listener;
+                synchronized (LowMoodMonitor.this) {
+                    listener = mListener;
+                    if (listener == null) {
+                        mPendingEpisode = true;
+                        return;
+                    }
+                }
+                listener.onLowMoodEpisode();
+            }
+        });
+    }
+}
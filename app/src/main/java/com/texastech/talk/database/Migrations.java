@@ -0,0 +1,354 @@
+package com.texastech.talk.database;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+public class Migrations {
+    /**
+     * Every change to the database schema gets a Migration here so that
+     * upgrading the app never wipes the user's moods or journals. When
+     * bumping the version in AppDatabase, add the new migration to ALL.
+     *
+     * Room exports the schema of each version to app/schemas, commit the
+     * new one along with the migration. SchemaMigrationTest checks every
+     * migration against those schemas, and MigrationTest replays the
+     * whole chain on a large version 1 database.
+     */
+    private static final long MINUTE_IN_MILLIS = 60 * 1000L;
+    private static final long DAY_IN_MILLIS = 24 * 60 * MINUTE_IN_MILLIS;
+
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Replaces the synthetic Mood.date counter with a real, indexed
+             * timestamp. The old dates were just 1, 2, 3... so the existing
+             * moods are spread one day apart, ending at the time of upgrade.
+             * SQLite can't drop columns so the table is rebuilt.
+             */
+            database.execSQL("CREATE TABLE IF NOT EXISTS `Mood_new` ("
+                    + "`mid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`timestamp` INTEGER NOT NULL, "
+                    + "`value` INTEGER NOT NULL, "
+                    + "`severity_level` INTEGER NOT NULL)");
+            database.execSQL("INSERT INTO `Mood_new` (`mid`, `timestamp`, `value`, `severity_level`) "
+                    + "SELECT `mid`, ? - ((SELECT MAX(`date`) FROM `Mood`) - `date`) * ?, "
+                    + "`value`, `severity_level` FROM `Mood`",
+                    new Object[]{System.currentTimeMillis(), DAY_IN_MILLIS});
+            database.execSQL("DROP TABLE `Mood`");
+            database.execSQL("ALTER TABLE `Mood_new` RENAME TO `Mood`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_Mood_timestamp` ON `Mood` (`timestamp`)");
+        }
+    };
+
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Indexes the suggestion catalogs by the mood they're for.
+             */
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_Resources_mood` ON `Resources` (`mood`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_Music_mood` ON `Music` (`mood`)");
+        }
+    };
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds the catalog version table. It starts out empty so the
+             * CatalogSeeder replaces the old, possibly duplicated, catalog
+             * rows with the bundled catalog the first time it's opened.
+             */
+            database.execSQL("CREATE TABLE IF NOT EXISTS `catalog_info` ("
+                    + "`id` INTEGER NOT NULL, "
+                    + "`version` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`id`))");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds the creation time used to page the journal list. There's
+             * no record of when the existing entries were written so they're
+             * kept in their original order, a minute apart, ending now.
+             */
+            database.execSQL("ALTER TABLE `Journal` ADD COLUMN `created` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("UPDATE `Journal` SET `created` = "
+                    + "? - ((SELECT MAX(`jid`) FROM `Journal`) - `jid`) * ?",
+                    new Object[]{System.currentTimeMillis(), MINUTE_IN_MILLIS});
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_Journal_created_jid` "
+                    + "ON `Journal` (`created`, `jid`)");
+        }
+    };
+
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds the full-text index over the journal, along with the
+             * triggers Room uses to keep it in sync, and indexes the
+             * existing entries.
+             */
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `journal_fts` "
+                    + "USING FTS4(`title` TEXT, `body` TEXT, content=`Journal`)");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_fts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `Journal` BEGIN "
+                    + "DELETE FROM `journal_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_fts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `Journal` BEGIN "
+                    + "DELETE FROM `journal_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_fts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `Journal` BEGIN "
+                    + "INSERT INTO `journal_fts`(`docid`, `title`, `body`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`body`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_journal_fts_AFTER_INSERT "
+                    + "AFTER INSERT ON `Journal` BEGIN "
+                    + "INSERT INTO `journal_fts`(`docid`, `title`, `body`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`body`); END");
+            database.execSQL("INSERT INTO `journal_fts`(`journal_fts`) VALUES('rebuild')");
+        }
+    };
+
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds the daily, weekly and monthly mood rollups and fills
+             * them from the existing moods in a single pass over the table.
+             */
+            database.execSQL("CREATE TABLE IF NOT EXISTS `mood_rollup` ("
+                    + "`period` INTEGER NOT NULL, "
+                    + "`bucket_start` INTEGER NOT NULL, "
+                    + "`count` INTEGER NOT NULL, "
+                    + "`value_sum` INTEGER NOT NULL, "
+                    + "`severity_sum` INTEGER NOT NULL, "
+                    + "`value_min` INTEGER NOT NULL, "
+                    + "`value_max` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`period`, `bucket_start`))");
+
+            fillRollups(database, Calendar.getInstance(),
+                    "SELECT `timestamp`, `value`, `severity_level` FROM `Mood`");
+        }
+    };
+
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds compressed journal bodies. The full-text index is kept
+             * in sync by JournalIndex from now on, so Room's triggers are
+             * dropped first; the index already holds the plain text of the
+             * existing entries and stays valid as they're compressed.
+             */
+            database.execSQL("ALTER TABLE `Journal` ADD COLUMN `body_deflated` BLOB");
+            database.execSQL("ALTER TABLE `Journal` ADD COLUMN `compressed` INTEGER NOT NULL DEFAULT 0");
+            JournalIndex.dropRoomSyncTriggers(database);
+
+            SupportSQLiteStatement compress = database.compileStatement(
+                    "UPDATE `Journal` SET `body` = NULL, `body_deflated` = ?, `compressed` = 1 "
+                    + "WHERE `jid` = ?");
+            int lastJid = -1;
+            while (true) {
+                // Read each batch fully before updating, the rows drop out of the query
+                List<Integer> jids = new ArrayList<>();
+                List<String> bodies = new ArrayList<>();
+                Cursor cursor = database.query("SELECT `jid`, `body` FROM `Journal` "
+                        + "WHERE `jid` > ? AND length(CAST(`body` AS BLOB)) >= ? "
+                        + "ORDER BY `jid` LIMIT 32",
+                        new Object[]{lastJid, JournalBodyCodec.COMPRESSION_THRESHOLD});
+                try {
+                    while (cursor.moveToNext()) {
+                        jids.add(cursor.getInt(0));
+                        bodies.add(cursor.getString(1));
+                    }
+                } finally {
+                    cursor.close();
+                }
+
+                if (jids.isEmpty()) {
+                    break;
+                }
+                for (int i = 0; i < jids.size(); i++) {
+                    byte[] deflated = JournalBodyCodec.compressIfWorthIt(bodies.get(i));
+                    if (deflated != null) {
+                        compress.bindBlob(1, deflated);
+                        compress.bindLong(2, jids.get(i));
+                        compress.executeUpdateDelete();
+                    }
+                }
+                lastJid = jids.get(jids.size() - 1);
+            }
+        }
+    };
+
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds the checkpoints that let an interrupted import resume.
+             */
+            database.execSQL("CREATE TABLE IF NOT EXISTS `import_checkpoint` ("
+                    + "`source` TEXT NOT NULL, "
+                    + "`format` TEXT, "
+                    + "`records` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`source`))");
+        }
+    };
+
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Adds the helpline flag to the resources. The flags themselves
+             * come from the catalog, which CatalogSeeder reloads on open
+             * since CATALOG_VERSION went up with this version.
+             */
+            database.execSQL("ALTER TABLE `Resources` ADD COLUMN `helpline` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            /**
+             * Stores the UTC offset each mood was logged with and rebuilds
+             * the rollups in local time, see MoodRollup. The existing moods
+             * get the offset of the current time zone at their timestamp,
+             * the zone their rollups were computed in.
+             */
+            database.execSQL("ALTER TABLE `Mood` ADD COLUMN `zone_offset` INTEGER NOT NULL DEFAULT 0");
+            fillZoneOffsets(database, TimeZone.getDefault());
+
+            database.execSQL("DELETE FROM `mood_rollup`");
+            fillRollups(database, MoodRollup.utcCalendar(),
+                    "SELECT `timestamp` + `zone_offset`, `value`, `severity_level` FROM `Mood`");
+        }
+    };
+
+    static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10,
+            MIGRATION_10_11,
+    };
+
+    private static void fillRollups(SupportSQLiteDatabase database, Calendar calendar, String query) {
+        /**
+         * Fills the empty rollup table in a single pass over the moods.
+         * The query returns the time, value and severity of every mood,
+         * and the time is bucketed with calendar.
+         */
+        Map<String, MoodRollup> rollups = new HashMap<>();
+        Cursor cursor = database.query(query);
+        try {
+            while (cursor.moveToNext()) {
+                for (int period : MoodRollup.PERIODS) {
+                    long bucketStart = MoodRollup.bucketStart(calendar, period, cursor.getLong(0));
+                    String key = MoodRollup.key(period, bucketStart);
+                    MoodRollup rollup = rollups.get(key);
+                    if (rollup == null) {
+                        rollup = new MoodRollup(period, bucketStart);
+                        rollups.put(key, rollup);
+                    }
+                    rollup.add(cursor.getInt(1), cursor.getInt(2));
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        SupportSQLiteStatement insert = database.compileStatement(
+                "INSERT INTO `mood_rollup` (`period`, `bucket_start`, `count`, `value_sum`, "
+                + "`severity_sum`, `value_min`, `value_max`) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        for (MoodRollup rollup : rollups.values()) {
+            insert.bindLong(1, rollup.period);
+            insert.bindLong(2, rollup.bucketStart);
+            insert.bindLong(3, rollup.count);
+            insert.bindLong(4, rollup.valueSum);
+            insert.bindLong(5, rollup.severitySum);
+            insert.bindLong(6, rollup.valueMin);
+            insert.bindLong(7, rollup.valueMax);
+            insert.executeInsert();
+        }
+    }
+
+    private static void fillZoneOffsets(SupportSQLiteDatabase database, TimeZone zone) {
+        /**
+         * Sets the zone offset of every mood to the offset of zone at its
+         * timestamp. The offset only changes at DST transitions, so the
+         * history is walked a day at a time, each transition is narrowed
+         * down to the millisecond, and every stretch with the same offset
+         * is a single range update on the timestamp index.
+         */
+        long first;
+        long last;
+        Cursor cursor = database.query("SELECT MIN(`timestamp`), MAX(`timestamp`) FROM `Mood`");
+        try {
+            if (!cursor.moveToFirst() || cursor.isNull(0)) {
+                return;
+            }
+            first = cursor.getLong(0);
+            last = cursor.getLong(1);
+        } finally {
+            cursor.close();
+        }
+
+        SupportSQLiteStatement update = database.compileStatement(
+                "UPDATE `Mood` SET `zone_offset` = ? WHERE `timestamp` >= ? AND `timestamp` < ?");
+        long stretchStart = first;
+        int offset = zone.getOffset(first);
+        long time = first;
+        while (time <= last) {
+            long next = Math.min(time + DAY_IN_MILLIS, last + 1);
+            if (zone.getOffset(next) == offset) {
+                time = next;
+                continue;
+            }
+
+            // The offset still holds at low and has changed by high
+            long low = time;
+            long high = next;
+            while (high - low > 1) {
+                long middle = low + (high - low) / 2;
+                if (zone.getOffset(middle) == offset) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            updateZoneOffsets(update, offset, stretchStart, high);
+            stretchStart = high;
+            offset = zone.getOffset(high);
+            time = high;
+        }
+        updateZoneOffsets(update, offset, stretchStart, last + 1);
+    }
+
+    private static void updateZoneOffsets(SupportSQLiteStatement update, int offset,
+                                          long from, long to) {
+        update.bindLong(1, offset);
+        update.bindLong(2, from);
+        update.bindLong(3, to);
+        update.executeUpdateDelete();
+    }
+}
@@ -2,35 +2,42 @@ package com.texastech.talk.database;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-/**
- * TODO: Add conversion class for the dates if necessary. You can
- *  as a UNIX timestamp then convert to/from the normal date/time format.
- */
+import java.util.TimeZone;
 
-@Entity
+@Entity(indices = {@Index("timestamp")})
 public class Mood {
     /**
      * This entity is an abstraction of the lower-level table
      * used to store the moods that a user goes through every day.
-     * Each mood is stored as a value between 1-6.
+     * Each mood is stored as a value between 1-6 along with the
+     * time it was entered as a UNIX timestamp in milliseconds.
      *
      * The lower-level table looks like the following:
      *
-     * ---------------------
-     * | ID | Date | Value |
-     * ---------------------
-     * | 0  | 2131 | 2     |
-     * | 1  | 2339 | 4     |
-     * | .. | ...  | ...   |
-     * ---------------------
+     * ----------------------------------------------
+     * | ID | Timestamp     | Value | Severity Level |
+     * ----------------------------------------------
+     * | 0  | 1575000000000 | 2     | 3              |
+     * | 1  | 1575086400000 | 4     | 1              |
+     * | .. | ...           | ...   | ...            |
+     * ----------------------------------------------
+     *
+     * The timestamp is indexed so the latest moods or the moods
+     * in a date range can be found without scanning the table.
+     *
+     * The offset from UTC in milliseconds of the time zone the
+     * mood was logged in is kept with it, so its day, week and
+     * month in the MoodRollups stay the same wherever and
+     * whenever they're worked out again.
      */
     @PrimaryKey(autoGenerate = true)
     int mid;
 
-    @ColumnInfo(name = "date")
-    public int date;
+    @ColumnInfo(name = "timestamp")
+    public long timestamp;
 
     @ColumnInfo(name = "value")
     public int value;
@@ -38,10 +45,22 @@ public class Mood {
     @ColumnInfo (name="severity_level")
     public int severityLevel;
 
+    @ColumnInfo(name = "zone_offset")
+    public int zoneOffset;
+
 
-    public Mood(int date, int value, int severityLevel) {
-        this.date = date;
+    public Mood(long timestamp, int value, int severityLevel) {
+        this.timestamp = timestamp;
         this.value = value;
         this.severityLevel= severityLevel;
+        this.zoneOffset = TimeZone.getDefault().getOffset(timestamp);
+    }
+
+    public long getLocalTime() {
+        /**
+         * The time on the clock where the mood was logged, as
+         * milliseconds since 1970 on that clock.
+         */
+        return timestamp + zoneOffset;
     }
 }
@@ -14,10 +14,28 @@ public interface MoodDao {
      * user attempting to interact with the lower-level
      * database and the raw database. The access object
      * allows you to perform operations, retrieve data etc.
+     *
+     * Prefer the bounded queries below over getAll(), they are
+     * served from the timestamp index.
      */
-    @Query("SELECT * FROM mood")
+    @Query("SELECT * FROM mood ORDER BY timestamp ASC")
     List<Mood> getAll();
 
+    @Query("SELECT * FROM mood ORDER BY timestamp DESC LIMIT 1")
+    Mood getLatest();
+
+    @Query("SELECT * FROM mood WHERE timestamp BETWEEN :from AND :to ORDER BY timestamp ASC")
+    List<Mood> getRange(long from, long to);
+
+    @Query("SELECT * FROM (SELECT * FROM mood ORDER BY timestamp DESC LIMIT :n) ORDER BY timestamp ASC")
+    List<Mood> getLastN(int n);
+
+    @Query("SELECT COUNT(*) FROM mood")
+    long count();
+
+    @Query("SELECT COUNT(*) FROM mood WHERE timestamp = :timestamp")
+    int countAt(long timestamp);
+
     @Insert
     void insert(Mood mood);
 
@@ -26,4 +44,4 @@ public interface MoodDao {
 
     @Delete
     void delete(Mood mood);
-}
\ No newline at end of file
+}
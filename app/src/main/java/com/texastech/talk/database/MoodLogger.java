@@ -0,0 +1,228 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class MoodLogger {
+    /**
+     * Write-behind buffer for mood entries. Moods logged from anywhere in the
+     * app (the mood dialog, notification actions, imports) are kept in memory
+     * and written together in one transaction once enough of them pile up or
+     * a short delay passes, instead of paying for a commit per entry.
+     *
+     * A mood is only durable once the flush carrying it has committed; the
+     * callback passed to log() fires at that point. Anything still buffered
+     * when the process dies is lost, which is why the activity flushes
+     * explicitly when it's paused.
+     *
+     * A mood the user is waiting on, like one saved from the mood dialog,
+     * goes through logNow() instead and is written right away, along with
+     * anything else buffered. Only background producers wait for the delay.
+     *
+     * Flushes run one at a time, in the order they were asked for, so
+     * batches commit in the order their moods were logged. A flush that
+     * fails puts its moods back at the front of the buffer, where the next
+     * flush picks them up, and reports the error to its caller.
+     */
+    public static final int MAX_BUFFERED_MOODS = 32;
+    public static final long FLUSH_DELAY_MILLIS = 2000;
+
+    private static MoodLogger mSingleInstance;
+
+    private final MoodRepository mRepository;
+    private final AppExecutors mExecutors;
+    private final Executor mWriter;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private List<Mood> mPendingMoods = new ArrayList<>();
+    private List<ResultCallback<Mood>> mPendingCallbacks = new ArrayList<>();
+    private boolean mFlushScheduled = false;
+
+    private final Runnable mScheduledFlush = new Runnable() {
+        @Override
+        public void run() {
+            flush(null);
+        }
+    };
+
+    private MoodLogger(MoodRepository repository, AppExecutors executors) {
+        mRepository = repository;
+        mExecutors = executors;
+        mWriter = new SerialExecutor(executors.diskIO());
+    }
+
+    public static MoodLogger getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (MoodLogger.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new MoodLogger(
+                            MoodRepository.getInstance(context), AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void log(int value, int severityLevel, @Nullable ResultCallback<Mood> callback) {
+        /**
+         * Buffers a mood stamped with the current time.
+         */
+        log(new Mood(System.currentTimeMillis(), value, severityLevel), callback);
+    }
+
+    public void logNow(int value, int severityLevel, @Nullable ResultCallback<Mood> callback,
+                       @Nullable ErrorCallback onError) {
+        /**
+         * Logs a mood stamped with the current time and flushes right away,
+         * for moods the user is waiting to see saved. If the flush fails
+         * onError is told, and the mood stays buffered for the next one.
+         */
+        synchronized (this) {
+            mPendingMoods.add(new Mood(System.currentTimeMillis(), value, severityLevel));
+            mPendingCallbacks.add(callback);
+        }
+        flush(null, onError);
+    }
+
+    public void log(Mood mood, @Nullable ResultCallback<Mood> callback) {
+        /**
+         * Buffers a mood. The callback runs on the main thread once the mood
+         * has been committed to the database.
+         */
+        boolean flushNow;
+        synchronized (this) {
+            mPendingMoods.add(mood);
+            mPendingCallbacks.add(callback);
+            flushNow = mPendingMoods.size() >= MAX_BUFFERED_MOODS;
+            if (!flushNow && !mFlushScheduled) {
+                mFlushScheduled = true;
+                mHandler.postDelayed(mScheduledFlush, FLUSH_DELAY_MILLIS);
+            }
+        }
+
+        if (flushNow) {
+            flush(null);
+        }
+    }
+
+    public void flush(@Nullable final ResultCallback<Integer> callback) {
+        flush(callback, null);
+    }
+
+    public void flush(@Nullable final ResultCallback<Integer> callback,
+                      @Nullable final ErrorCallback onError) {
+        /**
+         * Writes everything buffered so far in a single transaction. The
+         * callback receives the number of moods written, once they're durable.
+         * If the write fails the moods are buffered again and onError, if
+         * given, gets the exception on the main thread instead.
+         */
+        final List<Mood> moods;
+        final List<ResultCallback<Mood>> callbacks;
+        synchronized (this) {
+            moods = mPendingMoods;
+            callbacks = mPendingCallbacks;
+            mPendingMoods = new ArrayList<>();
+            mPendingCallbacks = new ArrayList<>();
+            mFlushScheduled = false;
+            mHandler.removeCallbacks(mScheduledFlush);
+
+            // Queued while still holding the buffer so flushes keep its order
+            mWriter.execute(new Runnable() {
+                @Override
+                public void run() {
+                    write(moods, callbacks, callback, onError);
+                }
+            });
+        }
+    }
+
+    private void write(final List<Mood> moods, final List<ResultCallback<Mood>> callbacks,
+                       @Nullable final ResultCallback<Integer> callback,
+                       @Nullable final ErrorCallback onError) {
+        if (!moods.isEmpty()) {
+            try {
+                mRepository.insertAll(moods);
+            } catch (final RuntimeException e) {
+                Log.e("MoodLogger", "Unable to write " + moods.size() + " moods", e);
+                synchronized (this) {
+                    // Ahead of anything logged since, they were logged first
+                    mPendingMoods.addAll(0, moods);
+                    mPendingCallbacks.addAll(0, callbacks);
+                }
+                if (onError != null) {
+                    mExecutors.mainThread().execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            onError.onError(e);
+                        }
+                    });
+                }
+                return;
+            }
+        }
+
+        mExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < moods.size(); i++) {
+                    if (callbacks.get(i) != null) {
+                        callbacks.get(i).onResult(moods.get(i));
+                    }
+                }
+                if (callback != null) {
+                    callback.onResult(moods.size());
+                }
+            }
+        });
+    }
+
+    private static class SerialExecutor implements Executor {
+        /**
+         * Runs tasks on another executor one at a time, in the order they
+         * were queued, each after the previous one has finished.
+         */
+        private final Executor mExecutor;
+        private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+        private Runnable mActive = null;
+
+        SerialExecutor(Executor executor) {
+            mExecutor = executor;
+        }
+
+        @Override
+        public synchronized void execute(@NonNull final Runnable task) {
+            mTasks.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+            if (mActive == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            mActive = mTasks.poll();
+            if (mActive != null) {
+                mExecutor.execute(mActive);
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+public class MoodRepository {
+    /**
+     * Asynchronous access to the moods table. Every query runs on the
+     * shared database pool and results are delivered on the main thread,
+     * so none of the UI code has to touch the database directly.
+     */
+    private static MoodRepository mSingleInstance;
+
+    private final AppDatabase mDatabase;
+    private final MoodDao mMoodDao;
+    private final MoodRollupDao mRollupDao;
+    private final MoodSeries mSeries;
+    private final MoodStatsStore mStats;
+    private final LowMoodMonitor mMonitor;
+    private final AppExecutors mExecutors;
+
+    // Moods this thread's transaction wrote, for the monitor once it commits
+    private final ThreadLocal<List<Mood>> mUncommittedMoods = new ThreadLocal<List<Mood>>() {
+        @Override
+        protected List<Mood> initialValue() {
+            return new ArrayList<>();
+        }
+    };
+
+    private MoodRepository(AppDatabase database, MoodSeries series, MoodStatsStore stats,
+                           LowMoodMonitor monitor, AppExecutors executors) {
+        mDatabase = database;
+        mMoodDao = database.moodDao();
+        mRollupDao = database.moodRollupDao();
+        mSeries = series;
+        mStats = stats;
+        mMonitor = monitor;
+        mExecutors = executors;
+    }
+
+    public static MoodRepository getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (MoodRepository.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new MoodRepository(AppDatabase.getDatabase(context),
+                            MoodSeries.getInstance(context), MoodStatsStore.getInstance(context),
+                            LowMoodMonitor.getInstance(context), AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void getAll(final ResultCallback<List<Mood>> callback) {
+        mExecutors.execute(new Callable<List<Mood>>() {
+            @Override
+            public List<Mood> call() {
+                return mMoodDao.getAll();
+            }
+        }, callback);
+    }
+
+    public void getLatest(final ResultCallback<Mood> callback) {
+        /**
+         * Returns the most recent mood, or null if none were entered yet.
+         */
+        mExecutors.execute(new Callable<Mood>() {
+            @Override
+            public Mood call() {
+                return mMoodDao.getLatest();
+            }
+        }, callback);
+    }
+
+    public void getRange(final long from, final long to, final ResultCallback<List<Mood>> callback) {
+        /**
+         * Returns the moods entered between the two timestamps, oldest first.
+         */
+        mExecutors.execute(new Callable<List<Mood>>() {
+            @Override
+            public List<Mood> call() {
+                return mMoodDao.getRange(from, to);
+            }
+        }, callback);
+    }
+
+    public void getRollups(final int period, final long from, final long to,
+                           final ResultCallback<List<MoodRollup>> callback) {
+        /**
+         * Returns the rollups of the given period (MoodRollup.DAY, WEEK or
+         * MONTH) whose buckets start between the two local times, oldest
+         * first.
+         */
+        mExecutors.execute(new Callable<List<MoodRollup>>() {
+            @Override
+            public List<MoodRollup> call() {
+                return mRollupDao.getRange(period, from, to);
+            }
+        }, callback);
+    }
+
+    public void getAllRollups(final int period, final ResultCallback<List<MoodRollup>> callback) {
+        /**
+         * Returns every rollup of the given period, oldest first.
+         */
+        mExecutors.execute(new Callable<List<MoodRollup>>() {
+            @Override
+            public List<MoodRollup> call() {
+                return mRollupDao.getAll(period);
+            }
+        }, callback);
+    }
+
+    public void delete(final Mood mood, @Nullable final ResultCallback<Mood> callback) {
+        /**
+         * Removes a mood along with its share of the rollups, its point in
+         * the MoodSeries and its part in the statistics.
+         */
+        mExecutors.execute(new Callable<Mood>() {
+            @Override
+            public Mood call() {
+                runInTransaction(new Runnable() {
+                    @Override
+                    public void run() {
+                        mMoodDao.delete(mood);
+                        recomputeRollups(mood);
+                        mSeries.onDeleted(mood);
+                        mStats.onDeleted(mSeries.load());
+                    }
+                });
+                return mood;
+            }
+        }, callback);
+    }
+
+    public void insertAll(final List<Mood> moods) {
+        /**
+         * Writes a batch of moods and updates the rollups, the MoodSeries
+         * and the statistics in a single transaction. The LowMoodMonitor
+         * checks them once the outermost transaction has committed, so it
+         * never alerts on moods that were rolled back. This blocks, so
+         * it's only meant for background writers such as the MoodLogger
+         * and the importer; the UI should go through the logger instead.
+         */
+        runInTransaction(new Runnable() {
+            @Override
+            public void run() {
+                mStats.ensureLoaded();
+                mMoodDao.insertAll(moods.toArray(new Mood[0]));
+                addToRollups(moods);
+                mSeries.onInserted(moods);
+                mStats.onInserted(moods);
+                mUncommittedMoods.get().addAll(moods);
+            }
+        });
+    }
+
+    public void runInTransaction(final Runnable body) {
+        /**
+         * Runs body in a transaction, like AppDatabase.runInTransaction(),
+         * for writers that call insertAll() as part of a larger one. The
+         * MoodSeries and the statistics are updated as moods are written,
+         * so if the transaction rolls back they're dropped and read again
+         * from the table the next time they're needed. Once the outermost
+         * transaction commits the statistics are saved, see
+         * MoodStatsStore, and the LowMoodMonitor checks the new moods.
+         * Blocks like insertAll().
+         */
+        try {
+            mDatabase.runInTransaction(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        body.run();
+                    } catch (RuntimeException e) {
+                        // Before the rollback, so nothing reads them in between
+                        mSeries.reset();
+                        mStats.reset();
+                        mUncommittedMoods.get().clear();
+                        throw e;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // The commit itself may have failed
+            mSeries.reset();
+            mStats.reset();
+            mUncommittedMoods.get().clear();
+            throw e;
+        }
+
+        if (!mDatabase.inTransaction()) {
+            mStats.onCommitted();
+            List<Mood> committed = mUncommittedMoods.get();
+            if (!committed.isEmpty()) {
+                List<Mood> moods = new ArrayList<>(committed);
+                committed.clear();
+                mMonitor.onInserted(moods);
+            }
+        }
+    }
+
+    private void addToRollups(List<Mood> moods) {
+        /**
+         * Folds new moods into their day, week and month buckets. Each
+         * bucket touched by the batch is read and written once.
+         */
+        Map<String, MoodRollup> touched = new HashMap<>();
+        Calendar calendar = MoodRollup.utcCalendar();
+        for (Mood mood : moods) {
+            for (int period : MoodRollup.PERIODS) {
+                long bucketStart = MoodRollup.bucketStart(calendar, period, mood.getLocalTime());
+                String key = MoodRollup.key(period, bucketStart);
+                MoodRollup rollup = touched.get(key);
+                if (rollup == null) {
+                    rollup = mRollupDao.get(period, bucketStart);
+                    if (rollup == null) {
+                        rollup = new MoodRollup(period, bucketStart);
+                    }
+                    touched.put(key, rollup);
+                }
+                rollup.add(mood.value, mood.severityLevel);
+            }
+        }
+        mRollupDao.upsertAll(new ArrayList<>(touched.values()));
+    }
+
+    private void recomputeRollups(Mood deleted) {
+        /**
+         * Rebuilds the buckets the deleted mood was in from their moods.
+         * Counts and sums could be decremented but the min and max can't,
+         * and a bucket holds at most a month of moods anyway. Buckets are
+         * in local time, so the moods are looked up with some leeway on
+         * either side and each one's own bucket is checked.
+         */
+        Calendar calendar = MoodRollup.utcCalendar();
+        for (int period : MoodRollup.PERIODS) {
+            long bucketStart = MoodRollup.bucketStart(calendar, period, deleted.getLocalTime());
+            long bucketEnd = MoodRollup.bucketEnd(calendar, period, bucketStart);
+            List<Mood> moods = mMoodDao.getRange(bucketStart - MoodRollup.MAX_ZONE_OFFSET_MILLIS,
+                    bucketEnd - 1 + MoodRollup.MAX_ZONE_OFFSET_MILLIS);
+
+            MoodRollup rollup = new MoodRollup(period, bucketStart);
+            for (Mood mood : moods) {
+                if (MoodRollup.bucketStart(calendar, period, mood.getLocalTime()) == bucketStart) {
+                    rollup.add(mood.value, mood.severityLevel);
+                }
+            }
+
+            if (rollup.count == 0) {
+                mRollupDao.delete(period, bucketStart);
+            } else {
+                mRollupDao.upsertAll(Collections.singletonList(rollup));
+            }
+        }
+    }
+}
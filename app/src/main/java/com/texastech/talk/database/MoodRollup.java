@@ -0,0 +1,148 @@
+package com.texastech.talk.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+@Entity(tableName = "mood_rollup", primaryKeys = {"period", "bucket_start"})
+public class MoodRollup {
+    /**
+     * Pre-aggregated moods for one day, week or month. The rows are kept
+     * up to date by MoodRepository in the same transaction as every mood
+     * insert or delete, so long-range statistics only have to read a few
+     * rows per period instead of the whole mood history.
+     *
+     * ---------------------------------------------------------------------------------
+     * | Period | Bucket Start  | Count | Value Sum | Severity Sum | Min | Max |
+     * ---------------------------------------------------------------------------------
+     * | 0      | 1575000000000 | 3     | 11        | 6            | 2   | 5   |
+     * | 2      | 1572566400000 | 40    | 152       | 81           | 1   | 6   |
+     * | ..     | ...           | ...   | ...       | ...          | ... | ... |
+     * ---------------------------------------------------------------------------------
+     *
+     * Buckets start at local midnight, on the first day of the week and
+     * on the first of the month, in the time zone the mood was logged in.
+     * A mood is placed by its local time, see Mood.getLocalTime(), and
+     * bucket_start is a local time too: milliseconds since midnight on
+     * 1 January 1970 on the local clock. So every mood of a local day is
+     * in the same bucket, and a mood stays in its buckets after the device
+     * changes time zone or DST rules.
+     */
+    public static final int DAY = 0;
+    public static final int WEEK = 1;
+    public static final int MONTH = 2;
+    public static final int[] PERIODS = {DAY, WEEK, MONTH};
+
+    // Offsets run from UTC-12 to UTC+14, so a mood's timestamp is at most
+    // this far from its local time
+    static final long MAX_ZONE_OFFSET_MILLIS = 14 * 60 * 60 * 1000L;
+
+    @ColumnInfo(name = "period")
+    public int period;
+
+    @ColumnInfo(name = "bucket_start")
+    public long bucketStart;
+
+    @ColumnInfo(name = "count")
+    public int count;
+
+    @ColumnInfo(name = "value_sum")
+    public long valueSum;
+
+    @ColumnInfo(name = "severity_sum")
+    public long severitySum;
+
+    @ColumnInfo(name = "value_min")
+    public int valueMin;
+
+    @ColumnInfo(name = "value_max")
+    public int valueMax;
+
+    public MoodRollup(int period, long bucketStart, int count, long valueSum,
+                      long severitySum, int valueMin, int valueMax) {
+        this.period = period;
+        this.bucketStart = bucketStart;
+        this.count = count;
+        this.valueSum = valueSum;
+        this.severitySum = severitySum;
+        this.valueMin = valueMin;
+        this.valueMax = valueMax;
+    }
+
+    @Ignore
+    public MoodRollup(int period, long bucketStart) {
+        this(period, bucketStart, 0, 0, 0, 0, 0);
+    }
+
+    public void add(int value, int severityLevel) {
+        if (count == 0) {
+            valueMin = value;
+            valueMax = value;
+        } else {
+            valueMin = Math.min(valueMin, value);
+            valueMax = Math.max(valueMax, value);
+        }
+        count++;
+        valueSum += value;
+        severitySum += severityLevel;
+    }
+
+    public float getAverageValue() {
+        return count == 0 ? 0 : (float)valueSum / count;
+    }
+
+    public float getAverageSeverity() {
+        return count == 0 ? 0 : (float)severitySum / count;
+    }
+
+    static String key(int period, long bucketStart) {
+        return period + ":" + bucketStart;
+    }
+
+    public static Calendar utcCalendar() {
+        /**
+         * A scratch calendar for working with local times, with the
+         * locale's first day of the week.
+         */
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    public static long bucketStart(Calendar calendar, int period, long timestamp) {
+        /**
+         * Returns the start of the bucket of the given period that the
+         * timestamp falls into, using the calendar's time zone and first
+         * day of the week. The calendar is only used as scratch space.
+         */
+        calendar.setTimeInMillis(timestamp);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (period == WEEK) {
+            int daysIntoWeek = (calendar.get(Calendar.DAY_OF_WEEK)
+                    - calendar.getFirstDayOfWeek() + 7) % 7;
+            calendar.add(Calendar.DAY_OF_MONTH, -daysIntoWeek);
+        } else if (period == MONTH) {
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    public static long bucketEnd(Calendar calendar, int period, long bucketStart) {
+        /**
+         * Returns the (exclusive) end of the bucket starting at bucketStart.
+         */
+        calendar.setTimeInMillis(bucketStart);
+        if (period == DAY) {
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        } else if (period == WEEK) {
+            calendar.add(Calendar.DAY_OF_MONTH, 7);
+        } else {
+            calendar.add(Calendar.MONTH, 1);
+        }
+        return calendar.getTimeInMillis();
+    }
+}
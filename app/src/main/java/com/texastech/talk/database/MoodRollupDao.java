@@ -0,0 +1,32 @@
+package com.texastech.talk.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface MoodRollupDao {
+    /**
+     * Access to the pre-aggregated mood buckets. Writes only happen
+     * through MoodRepository, inside the same transaction as the mood
+     * change they account for.
+     */
+    @Query("SELECT * FROM mood_rollup WHERE period = :period AND bucket_start = :bucketStart")
+    MoodRollup get(int period, long bucketStart);
+
+    @Query("SELECT * FROM mood_rollup WHERE period = :period "
+            + "AND bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start ASC")
+    List<MoodRollup> getRange(int period, long from, long to);
+
+    @Query("SELECT * FROM mood_rollup WHERE period = :period ORDER BY bucket_start ASC")
+    List<MoodRollup> getAll(int period);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<MoodRollup> rollups);
+
+    @Query("DELETE FROM mood_rollup WHERE period = :period AND bucket_start = :bucketStart")
+    void delete(int period, long bucketStart);
+}
@@ -0,0 +1,249 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+public class MoodSeries {
+    /**
+     * The whole mood history in memory as parallel primitive arrays,
+     * ordered by timestamp, for the charts and statistics to read from.
+     * It's loaded once with a raw cursor, so no Mood objects are built,
+     * and then kept up to date by MoodRepository inside the same
+     * transaction as every insert and delete. If that transaction rolls
+     * back the history is dropped and read again when next needed.
+     *
+     * Readers take a Snapshot, which never changes under them: new moods
+     * are normally appended past the end of a snapshot's arrays, and any
+     * other change publishes new arrays. Reading a snapshot allocates
+     * nothing, whatever the size of the history.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static MoodSeries mSingleInstance;
+
+    private final AppDatabase mDatabase;
+    private final AppExecutors mExecutors;
+
+    // Written under the lock, read from any thread
+    private volatile Snapshot mSnapshot = null;
+
+    public static class Snapshot {
+        /**
+         * An immutable view of the first size entries of the arrays.
+         * Values are 1-6 and severity levels 1-5, so they fit in bytes.
+         * Zone offsets are the UTC offset each mood was logged at, see
+         * Mood.zoneOffset.
+         */
+        public final long[] timestamps;
+        public final int[] zoneOffsets;
+        public final byte[] values;
+        public final byte[] severityLevels;
+        public final int size;
+
+        Snapshot(long[] timestamps, int[] zoneOffsets, byte[] values, byte[] severityLevels,
+                 int size) {
+            this.timestamps = timestamps;
+            this.zoneOffsets = zoneOffsets;
+            this.values = values;
+            this.severityLevels = severityLevels;
+            this.size = size;
+        }
+
+        public int indexAtOrAfter(long timestamp) {
+            /**
+             * Returns the index of the first mood at or after timestamp,
+             * or size if there's none.
+             */
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timestamps[middle] < timestamp) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private MoodSeries(AppDatabase database, AppExecutors executors) {
+        mDatabase = database;
+        mExecutors = executors;
+    }
+
+    public static MoodSeries getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (MoodSeries.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new MoodSeries(
+                            AppDatabase.getDatabase(context), AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void getSnapshot(final ResultCallback<Snapshot> callback) {
+        /**
+         * Returns the current snapshot, loading the history first if this
+         * is the first time it's needed.
+         */
+        final Snapshot snapshot = mSnapshot;
+        if (snapshot != null) {
+            mExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onResult(snapshot);
+                }
+            });
+            return;
+        }
+
+        mExecutors.execute(new Callable<Snapshot>() {
+            @Override
+            public Snapshot call() {
+                return load();
+            }
+        }, callback);
+    }
+
+    public Snapshot load() {
+        /**
+         * Returns the current snapshot, reading the history first if it
+         * isn't loaded yet. This runs in a
+         * transaction so that no write can land between reading the table
+         * and publishing the snapshot. Has to run on a background thread.
+         */
+        return mDatabase.runInTransaction(new Callable<Snapshot>() {
+            @Override
+            public Snapshot call() {
+                synchronized (MoodSeries.this) {
+                    if (mSnapshot != null) {
+                        return mSnapshot;
+                    }
+
+                    Cursor cursor = mDatabase.query(new SimpleSQLiteQuery(
+                            "SELECT `timestamp`, `zone_offset`, `value`, `severity_level` "
+                            + "FROM `Mood` ORDER BY `timestamp` ASC"));
+                    try {
+                        int capacity = Math.max(INITIAL_CAPACITY, cursor.getCount() * 5 / 4);
+                        long[] timestamps = new long[capacity];
+                        int[] zoneOffsets = new int[capacity];
+                        byte[] values = new byte[capacity];
+                        byte[] severityLevels = new byte[capacity];
+                        int size = 0;
+                        while (cursor.moveToNext()) {
+                            timestamps[size] = cursor.getLong(0);
+                            zoneOffsets[size] = cursor.getInt(1);
+                            values[size] = (byte)cursor.getInt(2);
+                            severityLevels[size] = (byte)cursor.getInt(3);
+                            size++;
+                        }
+                        mSnapshot = new Snapshot(timestamps, zoneOffsets, values, severityLevels,
+                                size);
+                    } finally {
+                        cursor.close();
+                    }
+                    return mSnapshot;
+                }
+            }
+        });
+    }
+
+    synchronized void onInserted(List<Mood> moods) {
+        /**
+         * Adds newly inserted moods. Called by MoodRepository inside the
+         * insert transaction; nothing happens if the history isn't loaded,
+         * it'll be read with the moods in it.
+         */
+        for (Mood mood : moods) {
+            if (mSnapshot == null) {
+                return;
+            }
+            insert(mood.timestamp, mood.zoneOffset, (byte)mood.value, (byte)mood.severityLevel);
+        }
+    }
+
+    synchronized void onDeleted(Mood mood) {
+        /**
+         * Removes a deleted mood, matched on its timestamp and values.
+         */
+        Snapshot current = mSnapshot;
+        if (current == null) {
+            return;
+        }
+
+        for (int i = current.indexAtOrAfter(mood.timestamp);
+             i < current.size && current.timestamps[i] == mood.timestamp; i++) {
+            if (current.values[i] == mood.value && current.severityLevels[i] == mood.severityLevel) {
+                // Fresh arrays, the ones in current are still being read
+                long[] timestamps = Arrays.copyOf(current.timestamps, current.timestamps.length);
+                int[] zoneOffsets = Arrays.copyOf(current.zoneOffsets, current.zoneOffsets.length);
+                byte[] values = Arrays.copyOf(current.values, current.values.length);
+                byte[] severityLevels = Arrays.copyOf(current.severityLevels, current.severityLevels.length);
+                int tail = current.size - i - 1;
+                System.arraycopy(timestamps, i + 1, timestamps, i, tail);
+                System.arraycopy(zoneOffsets, i + 1, zoneOffsets, i, tail);
+                System.arraycopy(values, i + 1, values, i, tail);
+                System.arraycopy(severityLevels, i + 1, severityLevels, i, tail);
+                mSnapshot = new Snapshot(timestamps, zoneOffsets, values, severityLevels,
+                        current.size - 1);
+                return;
+            }
+        }
+    }
+
+    synchronized void reset() {
+        /**
+         * Forgets the history after a transaction that changed it rolled
+         * back, the next snapshot is read from the table again.
+         */
+        mSnapshot = null;
+    }
+
+    private void insert(long timestamp, int zoneOffset, byte value, byte severityLevel) {
+        Snapshot current = mSnapshot;
+        int size = current.size;
+        boolean append = size == 0 || current.timestamps[size - 1] <= timestamp;
+        if (append && size < current.timestamps.length) {
+            // Past the end of every published snapshot, so nobody is reading it
+            current.timestamps[size] = timestamp;
+            current.zoneOffsets[size] = zoneOffset;
+            current.values[size] = value;
+            current.severityLevels[size] = severityLevel;
+            mSnapshot = new Snapshot(current.timestamps, current.zoneOffsets, current.values,
+                    current.severityLevels, size + 1);
+            return;
+        }
+
+        // Moods logged out of order (imports) or a full array need new arrays
+        int capacity = size < current.timestamps.length ? current.timestamps.length : size * 2;
+        long[] timestamps = new long[capacity];
+        int[] zoneOffsets = new int[capacity];
+        byte[] values = new byte[capacity];
+        byte[] severityLevels = new byte[capacity];
+        int index = append ? size : current.indexAtOrAfter(timestamp + 1);
+        System.arraycopy(current.timestamps, 0, timestamps, 0, index);
+        System.arraycopy(current.zoneOffsets, 0, zoneOffsets, 0, index);
+        System.arraycopy(current.values, 0, values, 0, index);
+        System.arraycopy(current.severityLevels, 0, severityLevels, 0, index);
+        timestamps[index] = timestamp;
+        zoneOffsets[index] = zoneOffset;
+        values[index] = value;
+        severityLevels[index] = severityLevel;
+        System.arraycopy(current.timestamps, index, timestamps, index + 1, size - index);
+        System.arraycopy(current.zoneOffsets, index, zoneOffsets, index + 1, size - index);
+        System.arraycopy(current.values, index, values, index + 1, size - index);
+        System.arraycopy(current.severityLevels, index, severityLevels, index + 1, size - index);
+        mSnapshot = new Snapshot(timestamps, zoneOffsets, values, severityLevels, size + 1);
+    }
+}
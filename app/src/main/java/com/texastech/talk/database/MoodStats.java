@@ -0,0 +1,288 @@
+package com.texastech.talk.database;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class MoodStats {
+    /**
+     * Running statistics over the mood history, updated in constant time
+     * for each new mood so nothing ever has to be recomputed from the
+     * table. Every day of the last RING_DAYS has a slot in a ring holding
+     * the count, sums and sums of squares of its values and severity
+     * levels, from which the rolling means and variances of each window
+     * in WINDOWS are read. Alongside it the engine keeps an exponential
+     * moving average of the values, the current streak of moods with the
+     * same value and the longest streak seen for each value, and how
+     * many moods were logged with each value.
+     *
+     * A mood's day is the day on the clock where it was logged, as with
+     * the MoodRollups (see Mood.getLocalTime()), so moving to another time
+     * zone doesn't shift the days of the moods already logged.
+     *
+     * Moods older than the ring only count towards the distribution, and
+     * moods logged out of order don't move the average or the streaks,
+     * which follow the order the moods happened in.
+     *
+     * The whole state is a few kilobytes and is written with writeTo() so
+     * it survives restarts. This class isn't thread safe, MoodStatsStore
+     * owns the instance the app uses.
+     */
+    public static final int[] WINDOWS = {7, 30, 90};
+    public static final int CATEGORIES = 6;
+    static final int RING_DAYS = 90;
+    static final double EMA_ALPHA = 0.2;
+
+    // 2 places moods by the zone they were logged in
+    private static final int FORMAT_VERSION = 2;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private long mCount = 0;
+    private long mLastDay = Long.MIN_VALUE;
+    private final int[] mDayCounts = new int[RING_DAYS];
+    private final int[] mValueSums = new int[RING_DAYS];
+    private final int[] mValueSquares = new int[RING_DAYS];
+    private final int[] mSeveritySums = new int[RING_DAYS];
+    private final int[] mSeveritySquares = new int[RING_DAYS];
+
+    private long mLastTimestamp = Long.MIN_VALUE;
+    private double mAverage = 0;
+    private int mLastValue = 0;
+    private int mCurrentStreak = 0;
+    private final int[] mLongestStreaks = new int[CATEGORIES];
+    private final long[] mDistribution = new long[CATEGORIES];
+
+    public static class Window {
+        /**
+         * The moods of the last days days. The means and variances are
+         * zero if there weren't any.
+         */
+        public final int days;
+        public final int count;
+        public final double valueMean;
+        public final double valueVariance;
+        public final double severityMean;
+        public final double severityVariance;
+
+        Window(int days, int count, long valueSum, long valueSquares,
+               long severitySum, long severitySquares) {
+            this.days = days;
+            this.count = count;
+            this.valueMean = mean(count, valueSum);
+            this.valueVariance = variance(count, valueSum, valueSquares);
+            this.severityMean = mean(count, severitySum);
+            this.severityVariance = variance(count, severitySum, severitySquares);
+        }
+
+        private static double mean(int count, long sum) {
+            return count == 0 ? 0 : (double)sum / count;
+        }
+
+        private static double variance(int count, long sum, long squares) {
+            // Sums of small integers are exact so this doesn't lose precision
+            return count == 0 ? 0 : Math.max(0, (double)(count * squares - sum * sum) / ((double)count * count));
+        }
+    }
+
+    public static class Summary {
+        /**
+         * A copy of the statistics at some point in time, one Window per
+         * entry of WINDOWS. Distribution and longest streaks are indexed
+         * by mood value - 1.
+         */
+        public final long count;
+        public final Window[] windows;
+        public final double movingAverage;
+        public final int currentStreakValue;
+        public final int currentStreak;
+        public final int[] longestStreaks;
+        public final long[] distribution;
+
+        Summary(long count, Window[] windows, double movingAverage, int currentStreakValue,
+                int currentStreak, int[] longestStreaks, long[] distribution) {
+            this.count = count;
+            this.windows = windows;
+            this.movingAverage = movingAverage;
+            this.currentStreakValue = currentStreakValue;
+            this.currentStreak = currentStreak;
+            this.longestStreaks = longestStreaks;
+            this.distribution = distribution;
+        }
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public void add(long timestamp, int zoneOffset, int value, int severityLevel) {
+        /**
+         * Folds one mood into the statistics, with the UTC offset it was
+         * logged at as in Mood.zoneOffset. Values outside 1-6 are clamped
+         * into it.
+         */
+        int category = Math.min(CATEGORIES, Math.max(1, value));
+        mCount++;
+        mDistribution[category - 1]++;
+
+        long day = dayOf(timestamp + zoneOffset);
+        if (day > mLastDay) {
+            advanceTo(day);
+        }
+        if (day > mLastDay - RING_DAYS) {
+            int slot = slotOf(day);
+            mDayCounts[slot]++;
+            mValueSums[slot] += value;
+            mValueSquares[slot] += value * value;
+            mSeveritySums[slot] += severityLevel;
+            mSeveritySquares[slot] += severityLevel * severityLevel;
+        }
+
+        if (timestamp < mLastTimestamp) {
+            return;
+        }
+        mAverage = mLastTimestamp == Long.MIN_VALUE
+                ? value : EMA_ALPHA * value + (1 - EMA_ALPHA) * mAverage;
+        mLastTimestamp = timestamp;
+        mCurrentStreak = category == mLastValue ? mCurrentStreak + 1 : 1;
+        mLastValue = category;
+        mLongestStreaks[category - 1] = Math.max(mLongestStreaks[category - 1], mCurrentStreak);
+    }
+
+    public void clear() {
+        mCount = 0;
+        mLastDay = Long.MIN_VALUE;
+        clearDays(0, RING_DAYS);
+        mLastTimestamp = Long.MIN_VALUE;
+        mAverage = 0;
+        mLastValue = 0;
+        mCurrentStreak = 0;
+        for (int i = 0; i < CATEGORIES; i++) {
+            mLongestStreaks[i] = 0;
+            mDistribution[i] = 0;
+        }
+    }
+
+    public Summary summarize(long now, int zoneOffset) {
+        /**
+         * Returns the statistics with each window ending on the day of now
+         * at the given UTC offset, normally the current zone's. This reads
+         * at most RING_DAYS slots, however long the history is.
+         */
+        long today = dayOf(now + zoneOffset);
+        Window[] windows = new Window[WINDOWS.length];
+        for (int w = 0; w < WINDOWS.length; w++) {
+            int days = WINDOWS[w];
+            int count = 0;
+            long valueSum = 0, valueSquares = 0, severitySum = 0, severitySquares = 0;
+            if (mLastDay == Long.MIN_VALUE) {
+                windows[w] = new Window(days, 0, 0, 0, 0, 0);
+                continue;
+            }
+
+            // Only the days both in the window and still in the ring
+            long from = Math.max(today - days + 1, mLastDay - RING_DAYS + 1);
+            long to = Math.min(today, mLastDay);
+            for (long day = from; day <= to; day++) {
+                int slot = slotOf(day);
+                count += mDayCounts[slot];
+                valueSum += mValueSums[slot];
+                valueSquares += mValueSquares[slot];
+                severitySum += mSeveritySums[slot];
+                severitySquares += mSeveritySquares[slot];
+            }
+            windows[w] = new Window(days, count, valueSum, valueSquares, severitySum, severitySquares);
+        }
+
+        return new Summary(mCount, windows, mAverage, mLastValue, mCurrentStreak,
+                mLongestStreaks.clone(), mDistribution.clone());
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(mCount);
+        out.writeLong(mLastDay);
+        for (int i = 0; i < RING_DAYS; i++) {
+            out.writeInt(mDayCounts[i]);
+            out.writeInt(mValueSums[i]);
+            out.writeInt(mValueSquares[i]);
+            out.writeInt(mSeveritySums[i]);
+            out.writeInt(mSeveritySquares[i]);
+        }
+        out.writeLong(mLastTimestamp);
+        out.writeDouble(mAverage);
+        out.writeInt(mLastValue);
+        out.writeInt(mCurrentStreak);
+        for (int i = 0; i < CATEGORIES; i++) {
+            out.writeInt(mLongestStreaks[i]);
+            out.writeLong(mDistribution[i]);
+        }
+    }
+
+    public void readFrom(DataInput in) throws IOException {
+        /**
+         * Replaces the statistics with ones written by writeTo(). Throws
+         * an IOException if they were written by another version.
+         */
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unknown statistics version " + version);
+        }
+
+        mCount = in.readLong();
+        mLastDay = in.readLong();
+        for (int i = 0; i < RING_DAYS; i++) {
+            mDayCounts[i] = in.readInt();
+            mValueSums[i] = in.readInt();
+            mValueSquares[i] = in.readInt();
+            mSeveritySums[i] = in.readInt();
+            mSeveritySquares[i] = in.readInt();
+        }
+        mLastTimestamp = in.readLong();
+        mAverage = in.readDouble();
+        mLastValue = in.readInt();
+        mCurrentStreak = in.readInt();
+        for (int i = 0; i < CATEGORIES; i++) {
+            mLongestStreaks[i] = in.readInt();
+            mDistribution[i] = in.readLong();
+        }
+    }
+
+    private void advanceTo(long day) {
+        /**
+         * Moves the end of the ring to day, emptying the slots of the days
+         * skipped over. At most the whole ring is cleared.
+         */
+        if (mLastDay == Long.MIN_VALUE || day - mLastDay >= RING_DAYS) {
+            clearDays(0, RING_DAYS);
+        } else {
+            for (long d = mLastDay + 1; d <= day; d++) {
+                clearDays(slotOf(d), slotOf(d) + 1);
+            }
+        }
+        mLastDay = day;
+    }
+
+    private void clearDays(int from, int to) {
+        for (int i = from; i < to; i++) {
+            mDayCounts[i] = 0;
+            mValueSums[i] = 0;
+            mValueSquares[i] = 0;
+            mSeveritySums[i] = 0;
+            mSeveritySquares[i] = 0;
+        }
+    }
+
+    private static long dayOf(long local) {
+        /**
+         * Days since the epoch of a local time, so days start at local
+         * midnight like the rollups.
+         */
+        long day = local / DAY_MILLIS;
+        return local < 0 && local % DAY_MILLIS != 0 ? day - 1 : day;
+    }
+
+    private static int slotOf(long day) {
+        int slot = (int)(day % RING_DAYS);
+        return slot < 0 ? slot + RING_DAYS : slot;
+    }
+}
@@ -0,0 +1,269 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+
+public class MoodStatsStore {
+    /**
+     * Owns the app's MoodStats and keeps them in a file so they pick up
+     * where they left off after a restart instead of replaying the
+     * history. MoodRepository feeds every new mood in, inside the same
+     * transaction that writes it.
+     *
+     * The file is saved WRITE_DELAY_MILLIS after the last commit that
+     * changed the statistics, not inside the transaction, so a burst of
+     * commits costs one write and no transaction waits on the disk. The
+     * statistics are copied out in a transaction of their own, which
+     * can't overlap a write, so the file only ever holds committed moods.
+     *
+     * The file records how many moods it has seen. If that doesn't match
+     * the table, say the app died before the file was saved, the
+     * statistics are rebuilt once from the MoodSeries. If a transaction
+     * rolls back, the statistics are dropped and rebuilt the same way.
+     */
+    static final long WRITE_DELAY_MILLIS = 5000;
+
+    private static final String FILE_NAME = "mood_stats.bin";
+
+    private static MoodStatsStore mSingleInstance;
+
+    private final AppDatabase mDatabase;
+    private final MoodSeries mSeries;
+    private final AppExecutors mExecutors;
+    private final Context mContext;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final MoodStats mStats = new MoodStats();
+    private boolean mLoaded = false;
+    private boolean mWriteScheduled = false;
+    // Saves run one at a time, in the order they copied the statistics
+    private final Object mFileLock = new Object();
+    // Found on first use, the files directory may have to be created
+    private AtomicFile mFile = null;
+
+    private final Runnable mScheduledWrite = new Runnable() {
+        @Override
+        public void run() {
+            mExecutors.diskIO().execute(new Runnable() {
+                @Override
+                public void run() {
+                    save();
+                }
+            });
+        }
+    };
+
+    private MoodStatsStore(AppDatabase database, MoodSeries series,
+                           AppExecutors executors, Context context) {
+        mDatabase = database;
+        mSeries = series;
+        mExecutors = executors;
+        mContext = context;
+    }
+
+    public static MoodStatsStore getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (MoodStatsStore.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new MoodStatsStore(
+                            AppDatabase.getDatabase(context), MoodSeries.getInstance(context),
+                            AppExecutors.getInstance(), context.getApplicationContext());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void getSummary(final ResultCallback<MoodStats.Summary> callback) {
+        /**
+         * Returns the statistics as of now.
+         */
+        mExecutors.execute(new Callable<MoodStats.Summary>() {
+            @Override
+            public MoodStats.Summary call() {
+                return summarize();
+            }
+        }, callback);
+    }
+
+    public MoodStats.Summary summarize() {
+        /**
+         * Returns the statistics as of now. Has to run on a background
+         * thread.
+         */
+        return mDatabase.runInTransaction(new Callable<MoodStats.Summary>() {
+            @Override
+            public MoodStats.Summary call() {
+                synchronized (MoodStatsStore.this) {
+                    ensureLoaded();
+                    long now = System.currentTimeMillis();
+                    return mStats.summarize(now, TimeZone.getDefault().getOffset(now));
+                }
+            }
+        });
+    }
+
+    synchronized void ensureLoaded() {
+        /**
+         * Reads the saved statistics if they haven't been yet. Has to be
+         * called inside a transaction, and before any new moods are
+         * written in it so that they're compared with the right count.
+         */
+        if (mLoaded) {
+            return;
+        }
+
+        long moods = mDatabase.moodDao().count();
+        if (!read() || mStats.getCount() != moods) {
+            rebuild(mSeries.load());
+        }
+        mLoaded = true;
+    }
+
+    synchronized void onInserted(List<Mood> moods) {
+        /**
+         * Adds newly inserted moods, ensureLoaded() has to have been
+         * called before they were written.
+         */
+        for (Mood mood : moods) {
+            mStats.add(mood.timestamp, mood.zoneOffset, mood.value, mood.severityLevel);
+        }
+    }
+
+    synchronized void onDeleted(MoodSeries.Snapshot series) {
+        /**
+         * The streaks and average can't take a mood back out, so a delete
+         * rebuilds everything from the series it was already removed from.
+         */
+        rebuild(series);
+        mLoaded = true;
+    }
+
+    synchronized void onCommitted() {
+        /**
+         * Called by MoodRepository once the outermost transaction that
+         * changed the statistics has committed. Saves them after a delay,
+         * unless a save is already waiting.
+         */
+        scheduleWrite();
+    }
+
+    synchronized void reset() {
+        /**
+         * Forgets the statistics after a transaction that changed them
+         * rolled back. The file never holds uncommitted moods, so it's
+         * kept.
+         */
+        mStats.clear();
+        mLoaded = false;
+    }
+
+    private void rebuild(MoodSeries.Snapshot series) {
+        mStats.clear();
+        for (int i = 0; i < series.size; i++) {
+            mStats.add(series.timestamps[i], series.zoneOffsets[i],
+                    series.values[i], series.severityLevels[i]);
+        }
+        scheduleWrite();
+    }
+
+    private void scheduleWrite() {
+        if (!mWriteScheduled) {
+            mWriteScheduled = true;
+            mHandler.postDelayed(mScheduledWrite, WRITE_DELAY_MILLIS);
+        }
+    }
+
+    private AtomicFile getFile() {
+        if (mFile == null) {
+            mFile = new AtomicFile(new File(mContext.getFilesDir(), FILE_NAME));
+        }
+        return mFile;
+    }
+
+    private boolean read() {
+        DataInputStream in = null;
+        try {
+            FileInputStream stream = getFile().openRead();
+            in = new DataInputStream(new BufferedInputStream(stream));
+            mStats.readFrom(in);
+            return true;
+        } catch (IOException e) {
+            // Missing on the first run, otherwise rebuilt from the series
+            mStats.clear();
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void save() {
+        /**
+         * Copies the statistics out while no transaction can be changing
+         * them, then writes the copy outside of it.
+         */
+        synchronized (mFileLock) {
+            byte[] bytes = mDatabase.runInTransaction(new Callable<byte[]>() {
+                @Override
+                public byte[] call() {
+                    synchronized (MoodStatsStore.this) {
+                        mWriteScheduled = false;
+                        // Rolled back since, the next load rebuilds them
+                        return mLoaded ? copy() : null;
+                    }
+                }
+            });
+            if (bytes != null) {
+                write(bytes);
+            }
+        }
+    }
+
+    private byte[] copy() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            mStats.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            // Only thrown by the stream, which is in memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void write(byte[] bytes) {
+        FileOutputStream stream = null;
+        try {
+            stream = getFile().startWrite();
+            stream.write(bytes);
+            getFile().finishWrite(stream);
+        } catch (IOException e) {
+            // The next start will notice the count is off and rebuild
+            Log.e("MoodStatsStore", "Unable to save the mood statistics", e);
+            if (stream != null) {
+                getFile().failWrite(stream);
+            }
+        }
+    }
+}
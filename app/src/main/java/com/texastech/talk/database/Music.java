@@ -2,9 +2,10 @@ package com.texastech.talk.database;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity
+@Entity(indices = {@Index("mood")})
 public class Music {
     /**
      * Entity used to store the resources that are suggested to the user
@@ -19,6 +20,9 @@ public class Music {
      * | 0   | depr  | this is | https://  | 1    |
      * | ... | ...   | ...     | ...       | ...  |
      * |-------------------------------------------
+     *
+     * The mood column is indexed since suggestions are always
+     * looked up by the mood they're meant for.
      */
     @PrimaryKey(autoGenerate = true)
     int rid;
@@ -41,4 +45,8 @@ public class Music {
         this.hyperlink = hyperlink;
         this.mood = mood;
     }
+
+    public int getRid() {
+        return rid;
+    }
 }
\ No newline at end of file
@@ -18,6 +18,12 @@ public interface MusicDao {
     @Query("SELECT * FROM Music")
     List<Music> getAll();
 
+    @Query("SELECT * FROM Music WHERE mood = :mood")
+    List<Music> getByMood(int mood);
+
+    @Query("SELECT * FROM Music WHERE mood = :mood ORDER BY rid LIMIT :limit OFFSET :offset")
+    List<Music> getByMood(int mood, int limit, int offset);
+
     @Insert
     void insert(Music music);
 
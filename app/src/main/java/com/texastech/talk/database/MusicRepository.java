@@ -0,0 +1,72 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+public class MusicRepository {
+    /**
+     * Asynchronous access to the suggested songs. Queries run on the shared
+     * database pool and results come back on the main thread.
+     */
+    private static MusicRepository mSingleInstance;
+
+    private final MusicDao mMusicDao;
+    private final MoodDao mMoodDao;
+    private final AppExecutors mExecutors;
+    private final RecommendationCache mCache;
+
+    private MusicRepository(AppDatabase database, AppExecutors executors, RecommendationCache cache) {
+        mMusicDao = database.MusicDao();
+        mMoodDao = database.moodDao();
+        mExecutors = executors;
+        mCache = cache;
+    }
+
+    public static MusicRepository getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (MusicRepository.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new MusicRepository(AppDatabase.getDatabase(context),
+                            AppExecutors.getInstance(), RecommendationCache.getInstance(context));
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void getForCurrentMood(final ResultCallback<List<Music>> callback) {
+        /**
+         * Returns the suggested songs that are relevant to the user's last
+         * mood, straight from the RecommendationCache when they're in it.
+         */
+        final List<Music> cached = mCache.getForCurrentMood(RecommendationCache.MUSIC);
+        if (cached != null) {
+            mExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onResult(cached);
+                }
+            });
+            return;
+        }
+
+        mExecutors.execute(new Callable<List<Music>>() {
+            @Override
+            public List<Music> call() {
+                int generation = mCache.getGeneration();
+                Integer mood = mCache.getCurrentMood();
+                if (mood == null) {
+                    Mood lastMood = mMoodDao.getLatest();
+                    mood = lastMood != null ? lastMood.value : RecommendationCache.DEFAULT_MOOD;
+                    mCache.putCurrentMood(generation, mood);
+                }
+
+                return mCache.put(generation, RecommendationCache.MUSIC, mood,
+                        mMusicDao.getByMood(mood));
+            }
+        }, callback);
+    }
+}
@@ -0,0 +1,130 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.InvalidationTracker;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+public class RecommendationCache {
+    /**
+     * Process-wide cache of the suggestions shown on the Resources and
+     * Music tabs. Suggestions only change when a new mood is logged or the
+     * catalog is replaced, so switching back to a tab is served from here
+     * without touching the database.
+     *
+     * Lists are kept per catalog and mood, tagged with the catalog version,
+     * and the least recently used ones are evicted past MAX_ENTRIES. Room's
+     * invalidation tracker drops the user's current mood whenever the Mood
+     * table changes and a catalog's lists whenever its table changes. Loads
+     * that were running when an invalidation came in aren't cached.
+     */
+    public static final String RESOURCES = "Resources";
+    public static final String MUSIC = "Music";
+    static final int MAX_ENTRIES = 12;
+
+    // Used until the user has logged their first mood
+    static final int DEFAULT_MOOD = 5;
+
+    private static RecommendationCache mSingleInstance;
+
+    private final LruCache<String, List<?>> mEntries = new LruCache<>(MAX_ENTRIES);
+    private Integer mCurrentMood = null;
+    private int mGeneration = 0;
+
+    private RecommendationCache(final AppDatabase database, AppExecutors executors) {
+        final InvalidationTracker.Observer observer =
+                new InvalidationTracker.Observer("Mood", RESOURCES, MUSIC) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate(tables);
+            }
+        };
+
+        // Registering may have to create the tracking triggers so keep it off the main thread
+        executors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                database.getInvalidationTracker().addObserver(observer);
+            }
+        });
+    }
+
+    public static RecommendationCache getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (RecommendationCache.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new RecommendationCache(
+                            AppDatabase.getDatabase(context), AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    synchronized int getGeneration() {
+        /**
+         * Has to be read before loading anything that will be put() back.
+         */
+        return mGeneration;
+    }
+
+    @Nullable
+    synchronized Integer getCurrentMood() {
+        return mCurrentMood;
+    }
+
+    synchronized void putCurrentMood(int generation, int mood) {
+        if (generation == mGeneration) {
+            mCurrentMood = mood;
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    synchronized <T> List<T> getForCurrentMood(String catalog) {
+        /**
+         * Returns the cached suggestions for the current mood, or null if
+         * either the mood or its suggestions aren't cached.
+         */
+        if (mCurrentMood == null) {
+            return null;
+        }
+        return (List<T>)mEntries.get(key(catalog, mCurrentMood));
+    }
+
+    synchronized <T> List<T> put(int generation, String catalog, int mood, List<T> items) {
+        /**
+         * Caches the suggestions unless something changed since generation
+         * was read. Returns them as the read-only list that's shared with
+         * every caller.
+         */
+        List<T> shared = Collections.unmodifiableList(items);
+        if (generation == mGeneration) {
+            mEntries.put(key(catalog, mood), shared);
+        }
+        return shared;
+    }
+
+    private synchronized void invalidate(Set<String> tables) {
+        mGeneration++;
+        if (tables.contains("Mood")) {
+            mCurrentMood = null;
+        }
+        for (String key : mEntries.snapshot().keySet()) {
+            if (tables.contains(key.substring(0, key.indexOf(':')))) {
+                mEntries.remove(key);
+            }
+        }
+    }
+
+    private static String key(String catalog, int mood) {
+        return catalog + ":" + mood + ":" + CatalogSeeder.CATALOG_VERSION;
+    }
+}
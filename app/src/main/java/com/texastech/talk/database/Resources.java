@@ -2,9 +2,10 @@ package com.texastech.talk.database;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity
+@Entity(indices = {@Index("mood")})
 public class Resources {
     /**
      * Entity used to store the resources that are suggested to the user
@@ -13,12 +14,17 @@ public class Resources {
      *
      * The lower-level table looks like the following:
      *
-     * --------------------------------------------
-     * | rid | title | content | hyperlink | mood |
-     * |-------------------------------------------
-     * | 0   | depr  | this is | https://  | 1    |
-     * | ... | ...   | ...     | ...       | ...  |
-     * |-------------------------------------------
+     * -------------------------------------------------------
+     * | rid | title | content | hyperlink | mood | helpline |
+     * |------------------------------------------------------
+     * | 0   | depr  | this is | https://  | 1    | 0        |
+     * | ... | ...   | ...     | ...       | ...  | ...      |
+     * |------------------------------------------------------
+     *
+     * The mood column is indexed since suggestions are always
+     * looked up by the mood they're meant for. Helplines are the
+     * resources offered straight away when the LowMoodMonitor
+     * notices a low-mood episode.
      */
     @PrimaryKey(autoGenerate = true)
     int rid;
@@ -35,10 +41,17 @@ public class Resources {
     @ColumnInfo(name = "mood")
     public int mood;
 
+    @ColumnInfo(name = "helpline")
+    public boolean helpline;
+
     public Resources(String title, String content, String hyperlink, int mood) {
        this.title = title;
        this.content = content;
        this.hyperlink = hyperlink;
        this.mood = mood;
     }
+
+    public int getRid() {
+        return rid;
+    }
 }
\ No newline at end of file
@@ -18,6 +18,15 @@ public interface ResourcesDao {
     @Query("SELECT * FROM resources")
     List<Resources> getAll();
 
+    @Query("SELECT * FROM resources WHERE mood = :mood")
+    List<Resources> getByMood(int mood);
+
+    @Query("SELECT * FROM resources WHERE mood = :mood ORDER BY rid LIMIT :limit OFFSET :offset")
+    List<Resources> getByMood(int mood, int limit, int offset);
+
+    @Query("SELECT * FROM resources WHERE helpline = 1 ORDER BY rid")
+    List<Resources> getHelplines();
+
     @Insert
     void insert(Resources resources);
 
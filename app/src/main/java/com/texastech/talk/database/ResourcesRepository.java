@@ -0,0 +1,84 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+public class ResourcesRepository {
+    /**
+     * Asynchronous access to the suggested articles. Queries run on the shared
+     * database pool and results come back on the main thread.
+     */
+    private static ResourcesRepository mSingleInstance;
+
+    private final ResourcesDao mResourcesDao;
+    private final MoodDao mMoodDao;
+    private final AppExecutors mExecutors;
+    private final RecommendationCache mCache;
+
+    private ResourcesRepository(AppDatabase database, AppExecutors executors, RecommendationCache cache) {
+        mResourcesDao = database.resourcesDao();
+        mMoodDao = database.moodDao();
+        mExecutors = executors;
+        mCache = cache;
+    }
+
+    public static ResourcesRepository getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (ResourcesRepository.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new ResourcesRepository(AppDatabase.getDatabase(context),
+                            AppExecutors.getInstance(), RecommendationCache.getInstance(context));
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void getForCurrentMood(final ResultCallback<List<Resources>> callback) {
+        /**
+         * Returns the suggested articles that are relevant to the user's last
+         * mood, straight from the RecommendationCache when they're in it.
+         */
+        final List<Resources> cached = mCache.getForCurrentMood(RecommendationCache.RESOURCES);
+        if (cached != null) {
+            mExecutors.mainThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onResult(cached);
+                }
+            });
+            return;
+        }
+
+        mExecutors.execute(new Callable<List<Resources>>() {
+            @Override
+            public List<Resources> call() {
+                int generation = mCache.getGeneration();
+                Integer mood = mCache.getCurrentMood();
+                if (mood == null) {
+                    Mood lastMood = mMoodDao.getLatest();
+                    mood = lastMood != null ? lastMood.value : RecommendationCache.DEFAULT_MOOD;
+                    mCache.putCurrentMood(generation, mood);
+                }
+
+                return mCache.put(generation, RecommendationCache.RESOURCES, mood,
+                        mResourcesDao.getByMood(mood));
+            }
+        }, callback);
+    }
+
+    public void getHelplines(final ResultCallback<List<Resources>> callback) {
+        /**
+         * Returns the helplines from the catalog, whatever the mood.
+         */
+        mExecutors.execute(new Callable<List<Resources>>() {
+            @Override
+            public List<Resources> call() {
+                return mResourcesDao.getHelplines();
+            }
+        }, callback);
+    }
+}
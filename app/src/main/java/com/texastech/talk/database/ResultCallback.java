@@ -0,0 +1,9 @@
+package com.texastech.talk.database;
+
+public interface ResultCallback<T> {
+    /**
+     * Receives the result of a query that ran in the background. This is
+     * always called on the main thread so it's safe to update views from it.
+     */
+    void onResult(T result);
+}
@@ -0,0 +1,146 @@
+package com.texastech.talk.navigation;
+
+import android.content.Intent;
+import android.net.Uri;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.StringRes;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.texastech.talk.R;
+
+public class CardListAdapter extends ListAdapter<CardListAdapter.Card, CardListAdapter.ViewHolder> {
+    /**
+     * Adapter for the suggestion cards on the resources and music tabs.
+     * Only the cards on screen have views, which are inflated from
+     * list_item_card and rebound as the list scrolls. Cards are identified
+     * by the id of the row they show, and a new list is diffed against the
+     * current one on a background thread.
+     */
+    private static final DiffUtil.ItemCallback<Card> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Card>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Card oldItem, @NonNull Card newItem) {
+                    return oldItem.id == newItem.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Card oldItem, @NonNull Card newItem) {
+                    return oldItem.mood == newItem.mood
+                            && equal(oldItem.title, newItem.title)
+                            && equal(oldItem.content, newItem.content)
+                            && equal(oldItem.hyperlink, newItem.hyperlink);
+                }
+            };
+
+    private final int mActionText;
+
+    public static class Card {
+        final long id;
+        final String title;
+        final String content;
+        final String hyperlink;
+        final int mood;
+
+        public Card(long id, String title, String content, String hyperlink, int mood) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+            this.hyperlink = hyperlink;
+            this.mood = mood;
+        }
+    }
+
+    public CardListAdapter(@StringRes int actionText) {
+        /**
+         * actionText labels the button that opens a card's hyperlink.
+         */
+        super(DIFF_CALLBACK);
+        mActionText = actionText;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).id;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View cardView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.list_item_card, parent, false);
+        return new ViewHolder(cardView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    static int backgroundFor(int mood) {
+        /**
+         * The picture shown on a card for the given mood, 0 for none.
+         */
+        // Depressed = 1, Sad = 2, Angry = 3, Scared = 4, Moderate = 5, Happy = 6
+        switch (mood) {
+            case 1:
+                return R.drawable.depressed_background;
+            case 2:
+                return R.drawable.sad_background;
+            case 3:
+                return R.drawable.angry_background;
+            case 4:
+                return R.drawable.scared_background;
+            case 5:
+                return R.drawable.moderate_background;
+            case 6:
+                return R.drawable.happy_background;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+        private final ImageView mImageView;
+        private final TextView mTitleView;
+        private final TextView mContentView;
+        private String mHyperlink;
+
+        ViewHolder(View cardView) {
+            super(cardView);
+            mImageView = cardView.findViewById(R.id.card_image);
+            mTitleView = cardView.findViewById(R.id.card_title);
+            mContentView = cardView.findViewById(R.id.card_content);
+
+            Button actionButton = cardView.findViewById(R.id.card_action);
+            actionButton.setText(mActionText);
+            actionButton.setOnClickListener(this);
+        }
+
+        void bind(Card card) {
+            mHyperlink = card.hyperlink;
+            mTitleView.setText(card.title);
+            mContentView.setText(card.content);
+            MoodArtworkLoader.getInstance(mImageView.getContext()).load(mImageView, backgroundFor(card.mood));
+        }
+
+        @Override
+        public void onClick(View v) {
+            Intent hyperlinkIntent = new Intent(Intent.ACTION_VIEW, Uri.parse(mHyperlink));
+            v.getContext().startActivity(hyperlinkIntent);
+        }
+    }
+}
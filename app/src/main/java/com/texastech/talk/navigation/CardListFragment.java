@@ -0,0 +1,129 @@
+package com.texastech.talk.navigation;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.texastech.talk.R;
+import com.texastech.talk.database.Music;
+import com.texastech.talk.database.MusicRepository;
+import com.texastech.talk.database.RecommendationCache;
+import com.texastech.talk.database.Resources;
+import com.texastech.talk.database.ResourcesRepository;
+import com.texastech.talk.database.ResultCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CardListFragment extends Fragment {
+    /**
+     * Displays the suggestions from one catalog as a list of cards, based
+     * on the user's mood: the articles they should be reading on the
+     * resources tab, or the music they should be listening to on the
+     * music tab. Which one is given by the ARG_CATALOG argument, either
+     * RecommendationCache.RESOURCES or RecommendationCache.MUSIC, which the
+     * navigation graph sets for each tab.
+     */
+    static final String ARG_CATALOG = "catalog";
+
+    private String mCatalog;
+    private CardListAdapter mAdapter;
+    private CardListViewModel mViewModel;
+
+    public CardListFragment() {
+        // Required.
+    }
+
+    public static CardListFragment newInstance(String catalog) {
+        Bundle arguments = new Bundle();
+        arguments.putString(ARG_CATALOG, catalog);
+        CardListFragment fragment = new CardListFragment();
+        fragment.setArguments(arguments);
+        return fragment;
+    }
+
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        Bundle arguments = getArguments();
+        mCatalog = arguments != null
+                ? arguments.getString(ARG_CATALOG, RecommendationCache.RESOURCES)
+                : RecommendationCache.RESOURCES;
+    }
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_resources, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull final View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        boolean music = RecommendationCache.MUSIC.equals(mCatalog);
+        mAdapter = new CardListAdapter(music ? R.string.card_play : R.string.card_learn_more);
+        RecyclerView cardList = view.findViewById(R.id.card_list);
+        cardList.setHasFixedSize(true);
+        cardList.setAdapter(mAdapter);
+
+        // Cards kept from the last time the tab was showing are still current
+        mViewModel = music
+                ? TabViewModel.of(this, CardListViewModel.MusicCards.class)
+                : TabViewModel.of(this, CardListViewModel.ResourcesCards.class);
+        if (!mViewModel.isStale() && mViewModel.getCards() != null) {
+            mAdapter.submitList(mViewModel.getCards());
+            return;
+        }
+
+        mViewModel.markFresh();
+
+        // Get the relevant suggestions in the background
+        if (music) {
+            MusicRepository.getInstance(view.getContext()).getForCurrentMood(
+                    new ResultCallback<List<Music>>() {
+                        @Override
+                        public void onResult(List<Music> songs) {
+                            List<CardListAdapter.Card> cards = new ArrayList<>(songs.size());
+                            for (Music song : songs) {
+                                cards.add(new CardListAdapter.Card(song.getRid(), song.title,
+                                        song.content, song.hyperlink, song.mood));
+                            }
+                            showCards(view, cards);
+                        }
+                    });
+        } else {
+            ResourcesRepository.getInstance(view.getContext()).getForCurrentMood(
+                    new ResultCallback<List<Resources>>() {
+                        @Override
+                        public void onResult(List<Resources> articles) {
+                            List<CardListAdapter.Card> cards = new ArrayList<>(articles.size());
+                            for (Resources article : articles) {
+                                cards.add(new CardListAdapter.Card(article.getRid(), article.title,
+                                        article.content, article.hyperlink, article.mood));
+                            }
+                            showCards(view, cards);
+                        }
+                    });
+        }
+    }
+
+    private void showCards(View view, List<CardListAdapter.Card> cards) {
+        /**
+         * Keeps the cards for the next time the tab is shown and displays
+         * them, unless the view they were loaded for is gone.
+         */
+        mViewModel.setCards(cards);
+        if (getView() == view) {
+            mAdapter.submitList(cards);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.texastech.talk.navigation;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.texastech.talk.database.RecommendationCache;
+
+import java.util.List;
+
+public abstract class CardListViewModel extends TabViewModel {
+    /**
+     * The cards last shown on the resources or music tab. They depend on
+     * the user's current mood and the tab's own catalog, so they go stale
+     * when either changes. Each tab has its own subclass, which gives it
+     * its own ViewModel and keeps a write to the other catalog from
+     * invalidating it.
+     */
+    private List<CardListAdapter.Card> mCards = null;
+
+    CardListViewModel(@NonNull Application application, String catalog) {
+        super(application, "Mood", catalog);
+    }
+
+    @Nullable
+    List<CardListAdapter.Card> getCards() {
+        return mCards;
+    }
+
+    void setCards(List<CardListAdapter.Card> cards) {
+        mCards = cards;
+    }
+
+    public static class ResourcesCards extends CardListViewModel {
+        public ResourcesCards(@NonNull Application application) {
+            super(application, RecommendationCache.RESOURCES);
+        }
+    }
+
+    public static class MusicCards extends CardListViewModel {
+        public MusicCards(@NonNull Application application) {
+            super(application, RecommendationCache.MUSIC);
+        }
+    }
+}
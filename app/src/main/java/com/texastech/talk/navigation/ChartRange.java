@@ -0,0 +1,35 @@
+package com.texastech.talk.navigation;
+
+import com.texastech.talk.R;
+import com.texastech.talk.database.MoodSeries;
+
+public enum ChartRange {
+    /**
+     * The spans of history the mood chart can show, each ending now. ALL
+     * starts at the first mood ever logged. The label pattern is used for
+     * the dates along the x axis.
+     */
+    WEEK(7, R.string.chart_range_week, "EEE"),
+    MONTH(30, R.string.chart_range_month, "d MMM"),
+    YEAR(365, R.string.chart_range_year, "MMM"),
+    ALL(0, R.string.chart_range_all, "MMM yy");
+
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    public final int days;
+    public final int titleId;
+    public final String labelPattern;
+
+    ChartRange(int days, int titleId, String labelPattern) {
+        this.days = days;
+        this.titleId = titleId;
+        this.labelPattern = labelPattern;
+    }
+
+    long startOf(MoodSeries.Snapshot series, long now) {
+        if (this == ALL && series.size > 0) {
+            return Math.min(series.timestamps[0], now - WEEK.days * DAY_MILLIS);
+        }
+        return now - (this == ALL ? WEEK.days : days) * DAY_MILLIS;
+    }
+}
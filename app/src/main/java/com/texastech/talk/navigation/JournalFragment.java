@@ -1,113 +1,284 @@
-package com.texastech.talk.navigation;
-
-import android.content.Intent;
-import android.os.Bundle;
-
-import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
-import androidx.fragment.app.Fragment;
-
-import android.util.Log;
-import android.view.LayoutInflater;
-import android.view.View;
-import android.view.ViewGroup;
-import android.widget.AdapterView;
-import android.widget.ArrayAdapter;
-import android.widget.ListView;
-
-import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.texastech.talk.NotepadEntry;
-import com.texastech.talk.R;
-import com.texastech.talk.database.AppDatabase;
-import com.texastech.talk.database.Journal;
-import com.texastech.talk.database.JournalDao;
-
-import java.util.ArrayList;
-import java.util.List;
-
-public class JournalFragment extends Fragment {
-    private ArrayAdapter<String> mAdapter;
-    private ArrayList<String> mArrayList;
-    private AppDatabase mDatabase;
-
-    public JournalFragment() {
-        // Required.
-    }
-
-    public static JournalFragment newInstance() {
-        return new JournalFragment();
-    }
-
-    @Override
-    public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
-        super.onActivityResult(requestCode, resultCode, data);
-        JournalDao journalDao = mDatabase.journalDao();
-        List<Journal> allJournals = journalDao.getAll();
-        mArrayList.clear();
-        for (Journal journal : allJournals) {
-            mArrayList.add(journal.title);
-        }
-        mAdapter.notifyDataSetChanged();
-    }
-
-    @Override
-    public void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-    }
-
-    @Override
-    public void onViewCreated(@NonNull final View view, @Nullable Bundle savedInstanceState) {
-        super.onViewCreated(view, savedInstanceState);
-
-        /**
-         * Set up listener for the journal fragment's FloatingActionButton
-         */
-        FloatingActionButton fab = view.findViewById(R.id.floating_action_button);
-        fab.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                // TODO: Add code for creating a journal entry
-                Intent intent = new Intent(view.getContext(), NotepadEntry.class);
-                startActivityForResult(intent, 0x0);
-            }
-        });
-
-        mDatabase = AppDatabase.getDatabase(view.getContext());
-        final JournalDao journalDao = mDatabase.journalDao();
-        List<Journal> allJournals = journalDao.getAll();
-        mArrayList = new ArrayList<>();
-        for (Journal journal : allJournals) {
-            mArrayList.add(journal.title);
-        }
-
-        mAdapter = new ArrayAdapter<String>(view.getContext(), R.layout.list_item, mArrayList);
-
-        ListView listView = view.findViewById(R.id.journal_list_view);
-        listView.setAdapter(mAdapter);
-        listView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
-            @Override
-            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                Journal entry = journalDao.getAll().get(position);
-                Intent intent = new Intent(view.getContext(), NotepadEntry.class);
-                intent.putExtra("Title", entry.title);
-                intent.putExtra("Body", entry.body);
-                startActivityForResult(intent, 0x0);
-            }
-        });
-
-        mAdapter.notifyDataSetChanged();
-    }
-
-    @Override
-    public void onResume() {
-        super.onResume();
-        mAdapter.notifyDataSetChanged();
-    }
-
-    @Override
-    public View onCreateView(LayoutInflater inflater, ViewGroup container,
-                             Bundle savedInstanceState) {
-        // Inflate the layout for this fragment
-        return inflater.inflate(R.layout.fragment_journal, container, false);
-    }
-}
+package com.texastech.talk.navigation;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.AdapterView;
+import android.widget.EditText;
+import android.widget.ListView;
+
+import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.texastech.talk.NotepadEntry;
+import com.texastech.talk.R;
+import com.texastech.talk.database.JournalRepository;
+import com.texastech.talk.database.JournalSearchResult;
+import com.texastech.talk.database.JournalSummary;
+import com.texastech.talk.database.ResultCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournalFragment extends Fragment {
+    /**
+     * Lists the titles of the user's journal entries, newest first. The
+     * titles are loaded a page at a time as the user scrolls down. Typing
+     * in the search box replaces the list with full-text search results.
+     *
+     * The list follows the journal table through Room's invalidation
+     * tracker, so it's only reloaded when an entry was actually written.
+     * The pages loaded so far are kept in a JournalViewModel, so coming
+     * back to the tab shows them again without a query.
+     */
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int SEARCH_RESULTS = 50;
+    private static final long SEARCH_DELAY_MILLIS = 150;
+
+    private JournalListAdapter mAdapter;
+    private JournalSearchAdapter mSearchAdapter;
+    private JournalRepository mRepository;
+    private JournalViewModel mViewModel;
+    private boolean mLoadingPage = false;
+    private int mGeneration = 0;
+    private int mSearchGeneration = 0;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSearchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            search();
+        }
+    };
+    private final Runnable mJournalChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (getView() != null) {
+                refreshJournals();
+                search();
+            }
+        }
+    };
+
+    public JournalFragment() {
+        // Required.
+    }
+
+    public static JournalFragment newInstance() {
+        return new JournalFragment();
+    }
+
+    private void refreshJournals() {
+        /**
+         * Reloads as many of the newest summaries as are already shown. The
+         * adapter diffs them against the current list off the main thread,
+         * so only the rows that actually changed get rebound. Pages still
+         * loading for the old list are dropped.
+         */
+        mGeneration++;
+        mLoadingPage = true;
+        mViewModel.markFresh();
+        final int generation = mGeneration;
+        final int limit = Math.max(PAGE_SIZE, mViewModel.getSummaries().size());
+        mRepository.getSummaries(null, limit, new ResultCallback<List<JournalSummary>>() {
+            @Override
+            public void onResult(List<JournalSummary> summaries) {
+                if (getView() == null || generation != mGeneration) {
+                    return;
+                }
+
+                mLoadingPage = false;
+                mViewModel.setSummaries(summaries, summaries.size() < limit);
+                mAdapter.submitList(summaries);
+            }
+        });
+    }
+
+    private void loadNextPage() {
+        /**
+         * Loads the page right after the last summary shown, in the background.
+         * Results for a list that has been reloaded since are dropped.
+         */
+        if (mLoadingPage || mViewModel.hasReachedEnd()) {
+            return;
+        }
+
+        mLoadingPage = true;
+        final int generation = mGeneration;
+        List<JournalSummary> shown = mViewModel.getSummaries();
+        JournalSummary last = shown.isEmpty() ? null : shown.get(shown.size() - 1);
+        mRepository.getSummaries(last, PAGE_SIZE, new ResultCallback<List<JournalSummary>>() {
+            @Override
+            public void onResult(List<JournalSummary> page) {
+                if (getView() == null || generation != mGeneration) {
+                    return;
+                }
+
+                mLoadingPage = false;
+                List<JournalSummary> shown = mViewModel.getSummaries();
+                List<JournalSummary> summaries = new ArrayList<>(shown.size() + page.size());
+                summaries.addAll(shown);
+                summaries.addAll(page);
+                mViewModel.setSummaries(summaries, page.size() < PAGE_SIZE);
+                mAdapter.submitList(summaries);
+            }
+        });
+    }
+
+    private void search() {
+        /**
+         * Searches for what's in the search box and shows the results, or
+         * goes back to the full list when the box is empty. Results for
+         * text that has been changed since are dropped.
+         */
+        View view = getView();
+        if (view == null) {
+            return;
+        }
+
+        EditText searchBox = view.findViewById(R.id.journal_search);
+        final View listView = view.findViewById(R.id.journal_list_view);
+        final ListView resultsView = view.findViewById(R.id.journal_search_results);
+        String text = searchBox.getText().toString().trim();
+
+        final int generation = ++mSearchGeneration;
+        if (text.isEmpty()) {
+            resultsView.setVisibility(View.GONE);
+            listView.setVisibility(View.VISIBLE);
+            return;
+        }
+
+        mRepository.search(text, SEARCH_RESULTS, new ResultCallback<List<JournalSearchResult>>() {
+            @Override
+            public void onResult(List<JournalSearchResult> results) {
+                if (getView() == null || generation != mSearchGeneration) {
+                    return;
+                }
+
+                mSearchAdapter.setResults(results);
+                listView.setVisibility(View.GONE);
+                resultsView.setVisibility(View.VISIBLE);
+            }
+        });
+    }
+
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        mRepository = JournalRepository.getInstance(requireContext());
+    }
+
+    @Override
+    public void onViewCreated(@NonNull final View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        /**
+         * Set up listener for the journal fragment's FloatingActionButton
+         */
+        FloatingActionButton fab = view.findViewById(R.id.floating_action_button);
+        fab.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                // TODO: Add code for creating a journal entry
+                Intent intent = new Intent(view.getContext(), NotepadEntry.class);
+                startActivity(intent);
+            }
+        });
+
+        // Both lists use the journal id as the item id, NotepadEntry loads the entry itself
+        mAdapter = new JournalListAdapter(new JournalListAdapter.OnEntryClickListener() {
+            @Override
+            public void onEntryClick(int jid) {
+                openEntry(jid);
+            }
+        });
+        mSearchAdapter = new JournalSearchAdapter();
+
+        final LinearLayoutManager layoutManager = new LinearLayoutManager(view.getContext());
+        RecyclerView listView = view.findViewById(R.id.journal_list_view);
+        listView.setLayoutManager(layoutManager);
+        listView.setAdapter(mAdapter);
+        listView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= mAdapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
+
+        ListView resultsView = view.findViewById(R.id.journal_search_results);
+        resultsView.setAdapter(mSearchAdapter);
+        resultsView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+            @Override
+            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+                openEntry((int) id);
+            }
+        });
+
+        EditText searchBox = view.findViewById(R.id.journal_search);
+        searchBox.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                // Wait for a short pause in typing instead of searching on every key
+                mHandler.removeCallbacks(mSearchRunnable);
+                mHandler.postDelayed(mSearchRunnable, SEARCH_DELAY_MILLIS);
+            }
+        });
+
+        // Pages from a view that's gone are dropped either way
+        mGeneration++;
+        mLoadingPage = false;
+        mViewModel = TabViewModel.of(this, JournalViewModel.class);
+        mViewModel.setOnChanged(mJournalChangedRunnable);
+        if (mViewModel.isStale()) {
+            refreshJournals();
+        } else {
+            mAdapter.submitList(mViewModel.getSummaries());
+        }
+    }
+
+    private void openEntry(int jid) {
+        Intent intent = new Intent(requireContext(), NotepadEntry.class);
+        intent.putExtra(NotepadEntry.EXTRA_JOURNAL_ID, jid);
+        startActivity(intent);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        mHandler.removeCallbacks(mSearchRunnable);
+        mViewModel.setOnChanged(null);
+    }
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container,
+                             Bundle savedInstanceState) {
+        // Inflate the layout for this fragment
+        return inflater.inflate(R.layout.fragment_journal, container, false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.texastech.talk.navigation;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.texastech.talk.R;
+import com.texastech.talk.database.JournalSummary;
+
+public class JournalListAdapter extends ListAdapter<JournalSummary, JournalListAdapter.ViewHolder> {
+    /**
+     * Adapter for the journal list. Each new list of summaries is diffed
+     * against the current one on a background thread, and only the rows
+     * that were inserted, changed or removed are rebound. Rows are
+     * identified by their journal id rather than by their position.
+     */
+    public interface OnEntryClickListener {
+        void onEntryClick(int jid);
+    }
+
+    private static final DiffUtil.ItemCallback<JournalSummary> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<JournalSummary>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull JournalSummary oldItem,
+                                               @NonNull JournalSummary newItem) {
+                    return oldItem.jid == newItem.jid;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull JournalSummary oldItem,
+                                                  @NonNull JournalSummary newItem) {
+                    return oldItem.created == newItem.created
+                            && (oldItem.title == null
+                                    ? newItem.title == null
+                                    : oldItem.title.equals(newItem.title));
+                }
+            };
+
+    private final OnEntryClickListener mListener;
+
+    public JournalListAdapter(OnEntryClickListener listener) {
+        super(DIFF_CALLBACK);
+        mListener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).jid;
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        TextView titleView = (TextView) LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.list_item, parent, false);
+        return new ViewHolder(titleView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+        private final TextView mTitleView;
+        private int mJid;
+
+        ViewHolder(TextView titleView) {
+            super(titleView);
+            mTitleView = titleView;
+            mTitleView.setOnClickListener(this);
+        }
+
+        void bind(JournalSummary summary) {
+            mJid = summary.jid;
+            mTitleView.setText(summary.title);
+        }
+
+        @Override
+        public void onClick(View v) {
+            mListener.onEntryClick(mJid);
+        }
+    }
+}
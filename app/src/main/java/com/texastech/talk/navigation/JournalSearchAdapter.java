@@ -0,0 +1,98 @@
+package com.texastech.talk.navigation;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.TextView;
+
+import androidx.core.content.ContextCompat;
+
+import com.texastech.talk.R;
+import com.texastech.talk.database.JournalSearchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournalSearchAdapter extends BaseAdapter {
+    /**
+     * Shows the results of a journal search as the title of each entry
+     * followed by a snippet with the matching words highlighted.
+     */
+    private List<JournalSearchResult> mResults = new ArrayList<>();
+
+    public void setResults(List<JournalSearchResult> results) {
+        mResults = results;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getCount() {
+        return mResults.size();
+    }
+
+    @Override
+    public JournalSearchResult getItem(int position) {
+        return mResults.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mResults.get(position).jid;
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        View view = convertView;
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.list_item_search_result, parent, false);
+        }
+
+        JournalSearchResult result = getItem(position);
+        TextView titleView = view.findViewById(R.id.search_result_title);
+        TextView snippetView = view.findViewById(R.id.search_result_snippet);
+        titleView.setText(result.title);
+        snippetView.setText(highlight(result.snippet,
+                ContextCompat.getColor(parent.getContext(), R.color.colorBottomNavActive)));
+        return view;
+    }
+
+    private static CharSequence highlight(String snippet, int color) {
+        /**
+         * Replaces the match markers in the snippet with bold, colored spans.
+         */
+        SpannableStringBuilder builder = new SpannableStringBuilder();
+        if (snippet == null) {
+            return builder;
+        }
+
+        int matchStart = -1;
+        for (int i = 0; i < snippet.length(); i++) {
+            char c = snippet.charAt(i);
+            if (c == JournalSearchResult.MATCH_START) {
+                matchStart = builder.length();
+            } else if (c == JournalSearchResult.MATCH_END && matchStart >= 0) {
+                builder.setSpan(new StyleSpan(Typeface.BOLD), matchStart, builder.length(),
+                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                builder.setSpan(new ForegroundColorSpan(color), matchStart, builder.length(),
+                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                matchStart = -1;
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder;
+    }
+}
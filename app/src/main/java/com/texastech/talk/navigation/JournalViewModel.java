@@ -0,0 +1,36 @@
+package com.texastech.talk.navigation;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+
+import com.texastech.talk.database.JournalSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournalViewModel extends TabViewModel {
+    /**
+     * The journal summaries loaded so far, as many pages as the user
+     * scrolled through, and whether that's all of them.
+     */
+    private List<JournalSummary> mSummaries = new ArrayList<>();
+    private boolean mReachedEnd = false;
+
+    public JournalViewModel(@NonNull Application application) {
+        super(application, "Journal");
+    }
+
+    List<JournalSummary> getSummaries() {
+        return mSummaries;
+    }
+
+    boolean hasReachedEnd() {
+        return mReachedEnd;
+    }
+
+    void setSummaries(List<JournalSummary> summaries, boolean reachedEnd) {
+        mSummaries = summaries;
+        mReachedEnd = reachedEnd;
+    }
+}
@@ -0,0 +1,199 @@
+package com.texastech.talk.navigation;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.ErrorCallback;
+import com.texastech.talk.database.ResultCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+public class MoodArtworkLoader {
+    /**
+     * Loads the mood artwork shown on the suggestion cards. Each picture is
+     * decoded once per size on the decode thread, not the database pool,
+     * scaled down with inSampleSize to about the size of the view it goes
+     * into, and kept in an LruCache shared by every card on both tabs. The
+     * cache is bounded to a fraction of the heap and emptied when the
+     * system is low on memory.
+     *
+     * Everything but the decoding happens on the main thread.
+     */
+    private static final int CACHE_FRACTION = 16;
+
+    private static MoodArtworkLoader mSingleInstance;
+
+    private final Resources mResources;
+    private final AppExecutors mExecutors;
+    private final LruCache<String, Bitmap> mCache;
+    private final Map<String, List<ImageView>> mPending = new HashMap<>();
+
+    private MoodArtworkLoader(Context context, AppExecutors executors) {
+        mResources = context.getResources();
+        mExecutors = executors;
+
+        int maxKilobytes = (int)(Runtime.getRuntime().maxMemory() / 1024 / CACHE_FRACTION);
+        mCache = new LruCache<String, Bitmap>(maxKilobytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+
+        context.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_MODERATE) {
+                    mCache.evictAll();
+                } else if (level >= TRIM_MEMORY_BACKGROUND) {
+                    mCache.trimToSize(mCache.maxSize() / 2);
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                mCache.evictAll();
+            }
+        });
+    }
+
+    public static MoodArtworkLoader getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (MoodArtworkLoader.class) {
+                if (mSingleInstance == null) {
+                    mSingleInstance = new MoodArtworkLoader(context.getApplicationContext(),
+                            AppExecutors.getInstance());
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    public void load(final ImageView view, @DrawableRes final int resId) {
+        /**
+         * Shows the picture in view, right away if it's cached and
+         * otherwise once it's decoded. A view that gets rebound to another
+         * picture in the meantime is left alone. resId 0 clears the view.
+         */
+        if (resId == 0) {
+            view.setTag(null);
+            view.setImageDrawable(null);
+            return;
+        }
+
+        final int width = targetWidth(view);
+        final int height = targetHeight(view);
+        final String key = resId + ":" + width + "x" + height;
+        view.setTag(key);
+
+        Bitmap cached = mCache.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        view.setImageDrawable(null);
+        List<ImageView> waiting = mPending.get(key);
+        if (waiting != null) {
+            // Already being decoded for another card
+            waiting.add(view);
+            return;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(view);
+        mPending.put(key, waiting);
+
+        mExecutors.execute(mExecutors.decode(), new Callable<Bitmap>() {
+            @Override
+            public Bitmap call() {
+                return decode(mResources, resId, width, height);
+            }
+        }, new ResultCallback<Bitmap>() {
+            @Override
+            public void onResult(Bitmap bitmap) {
+                List<ImageView> views = mPending.remove(key);
+                if (bitmap == null) {
+                    return;
+                }
+
+                mCache.put(key, bitmap);
+                for (ImageView waitingView : views) {
+                    if (key.equals(waitingView.getTag())) {
+                        waitingView.setImageBitmap(bitmap);
+                    }
+                }
+            }
+        }, new ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                // The views stay blank, the next bind tries again
+                mPending.remove(key);
+            }
+        });
+    }
+
+    static Bitmap decode(Resources resources, int resId, int width, int height) {
+        /**
+         * Decodes the picture scaled down as far as it can be while still
+         * covering width x height. The density scaling decodeResource would
+         * apply is turned off, the pictures are cropped to the view anyway.
+         */
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resId, options);
+
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, width, height);
+        options.inJustDecodeBounds = false;
+        options.inScaled = false;
+        return BitmapFactory.decodeResource(resources, resId, options);
+    }
+
+    static int sampleSize(int width, int height, int targetWidth, int targetHeight) {
+        /**
+         * The largest power of two that keeps both sides at least as big
+         * as the target, since the view crops rather than letterboxes.
+         */
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static int targetWidth(ImageView view) {
+        // Cards span the screen and are often bound before their first layout,
+        // using the screen width keeps one cache entry per picture
+        return view.getResources().getDisplayMetrics().widthPixels;
+    }
+
+    private static int targetHeight(ImageView view) {
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null && params.height > 0) {
+            return params.height;
+        }
+        if (view.getHeight() > 0) {
+            return view.getHeight();
+        }
+        return view.getResources().getDisplayMetrics().heightPixels;
+    }
+}
@@ -0,0 +1,92 @@
+package com.texastech.talk.navigation;
+
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+import com.texastech.talk.database.MoodSeries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class MoodChartBuilder {
+    /**
+     * Builds the mood chart's data from the MoodSeries. None of this
+     * touches a view, so it runs on the database pool and the fragment
+     * only has to hand the result to the chart.
+     *
+     * The x axis is in days since the start of the range, a float has
+     * plenty of precision for that where it wouldn't for milliseconds.
+     * A stretch of the range is downsampled to about as many points as
+     * the chart is pixels wide, so the cost of drawing doesn't grow with
+     * the history.
+     */
+
+    // Past this a cubic line costs more than it's worth, and can't be told apart anyway
+    private static final int CUBIC_MAX_POINTS = 60;
+
+    static class Chart {
+        /**
+         * The data for one range. Entry x values are days after base.
+         */
+        final ChartRange range;
+        final long base;
+        final float maxX;
+        final LineData data;
+
+        Chart(ChartRange range, long base, float maxX, LineData data) {
+            this.range = range;
+            this.base = base;
+            this.maxX = maxX;
+            this.data = data;
+        }
+    }
+
+    static Chart build(MoodSeries.Snapshot series, ChartRange range, long now,
+                       int maxPoints, int color) {
+        /**
+         * Builds the whole of range, ending at now.
+         */
+        long base = range.startOf(series, now);
+        return new Chart(range, base, toX(base, now), buildData(series, base, base, now, maxPoints, color));
+    }
+
+    static LineData buildData(MoodSeries.Snapshot series, long base, long from, long to,
+                              int maxPoints, int color) {
+        /**
+         * Builds the moods between from and to, downsampled to at most
+         * maxPoints points.
+         */
+        int first = series.indexAtOrAfter(from);
+        int last = series.indexAtOrAfter(to + 1);
+        int[] picked = new int[Math.max(0, Math.min(maxPoints, last - first))];
+        int count = MoodDownsampler.downsample(series.timestamps, series.values, first, last,
+                picked.length, picked);
+
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = picked[i];
+            entries.add(new Entry(toX(base, series.timestamps[index]), series.values[index]));
+        }
+
+        // TODO: Color in the different moods differently
+        LineDataSet dataSet = new LineDataSet(entries, "Mood History");
+        boolean sparse = count <= CUBIC_MAX_POINTS;
+        dataSet.setColor(color);
+        dataSet.setValueTextColor(color);
+        dataSet.setMode(sparse ? LineDataSet.Mode.CUBIC_BEZIER : LineDataSet.Mode.LINEAR);
+        dataSet.setDrawValues(sparse);
+        dataSet.setDrawCircles(sparse);
+        dataSet.setDrawFilled(true);
+        dataSet.setLineWidth(sparse ? 4.0f : 2.0f);
+        dataSet.setHighlightLineWidth(4);
+        return new LineData(dataSet);
+    }
+
+    static float toX(long base, long timestamp) {
+        return (float)(timestamp - base) / ChartRange.DAY_MILLIS;
+    }
+
+    static long toTimestamp(long base, float x) {
+        return base + (long)(x * ChartRange.DAY_MILLIS);
+    }
+}
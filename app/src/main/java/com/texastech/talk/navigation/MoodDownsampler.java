@@ -0,0 +1,85 @@
+package com.texastech.talk.navigation;
+
+public class MoodDownsampler {
+    /**
+     * Largest-Triangle-Three-Buckets downsampling of a stretch of the mood
+     * series. The points between the first and last are split into
+     * buckets, and from each bucket the point that forms the largest
+     * triangle with the point kept from the previous bucket and the
+     * average of the next one is kept. That holds on to the peaks and
+     * dips a plain average would flatten, which is what matters in a
+     * mood history.
+     *
+     * Indices are written into a caller's array so nothing is allocated.
+     */
+    private MoodDownsampler() {
+    }
+
+    public static int downsample(long[] xs, byte[] ys, int from, int to,
+                                 int threshold, int[] out) {
+        /**
+         * Picks at most threshold of the points from up to (but not
+         * including) to, writing their indices into out in order. Returns
+         * how many were picked. out has to hold threshold indices, or all
+         * of the points if there are fewer.
+         */
+        int count = to - from;
+        if (count <= threshold) {
+            for (int i = 0; i < count; i++) {
+                out[i] = from + i;
+            }
+            return count;
+        }
+        if (threshold < 3) {
+            // Too few to have any buckets between the ends
+            if (threshold > 0) {
+                out[0] = from;
+            }
+            if (threshold > 1) {
+                out[1] = to - 1;
+            }
+            return Math.max(0, threshold);
+        }
+
+        // Relative to the first point so the areas stay well inside a double
+        long origin = xs[from];
+        double bucketSize = (double)(count - 2) / (threshold - 2);
+        int kept = from;
+        out[0] = from;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = from + (int)((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int)((bucket + 2) * bucketSize) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += xs[i] - origin;
+                averageY += ys[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = from + (int)(bucket * bucketSize) + 1;
+            int end = nextStart;
+            double keptX = xs[kept] - origin;
+            double keptY = ys[kept];
+            double largestArea = -1;
+            int largest = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((keptX - averageX) * (ys[i] - keptY)
+                        - (keptX - (xs[i] - origin)) * (averageY - keptY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = i;
+                }
+            }
+
+            out[bucket + 1] = largest;
+            kept = largest;
+        }
+
+        out[threshold - 1] = to - 1;
+        return threshold;
+    }
+}
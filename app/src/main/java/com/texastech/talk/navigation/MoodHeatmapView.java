@@ -0,0 +1,219 @@
+package com.texastech.talk.navigation;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.texastech.talk.R;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.MoodRollup;
+import com.texastech.talk.database.ResultCallback;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+
+public class MoodHeatmapView extends View {
+    /**
+     * A year of moods at a glance, one cell per day in columns of weeks
+     * with today in the last column. A cell's color is the day's average
+     * mood and its opacity the day's average severity.
+     *
+     * The grid is drawn once into an off-screen bitmap on the database
+     * pool, and onDraw() only copies that bitmap to the screen. When new
+     * days come in through setDays() only the cells whose color changed
+     * are drawn again, straight into the same bitmap.
+     */
+    static final int WEEKS = 53;
+    static final int DAYS_PER_WEEK = 7;
+    static final int CELLS = WEEKS * DAYS_PER_WEEK;
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final float GAP_FRACTION = 0.15f;
+    private static final PorterDuffXfermode CLEAR = new PorterDuffXfermode(PorterDuff.Mode.CLEAR);
+
+    private final int[] mMoodColors;
+    private final int mEmptyColor;
+    private final Paint mPaint = new Paint();
+
+    private int[] mCells;
+    private long mGridStart = 0;
+    private Bitmap mBitmap = null;
+    private int mRenderRequest = 0;
+
+    public MoodHeatmapView(Context context) {
+        this(context, null);
+    }
+
+    public MoodHeatmapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        mMoodColors = new int[]{
+                ContextCompat.getColor(context, R.color.colorMoodDepressed),
+                ContextCompat.getColor(context, R.color.colorMoodSad),
+                ContextCompat.getColor(context, R.color.colorMoodAngry),
+                ContextCompat.getColor(context, R.color.colorMoodScared),
+                ContextCompat.getColor(context, R.color.colorMoodModerate),
+                ContextCompat.getColor(context, R.color.colorMoodHappy),
+        };
+        mEmptyColor = ContextCompat.getColor(context, R.color.colorHeatmapEmpty);
+        mCells = emptyCells();
+    }
+
+    public static long gridStart(long now) {
+        /**
+         * The local midnight the grid starts at: the first day of the week
+         * WEEKS - 1 weeks before the one containing now. Like the start of
+         * a rollup it's a local time, see MoodRollup.
+         */
+        long localNow = now + TimeZone.getDefault().getOffset(now);
+        Calendar calendar = MoodRollup.utcCalendar();
+        calendar.setTimeInMillis(MoodRollup.bucketStart(calendar, MoodRollup.WEEK, localNow));
+        calendar.add(Calendar.WEEK_OF_YEAR, -(WEEKS - 1));
+        return calendar.getTimeInMillis();
+    }
+
+    public void setDays(long gridStart, List<MoodRollup> days) {
+        /**
+         * Shows the daily rollups from gridStart on, which has to come from
+         * gridStart(). Days outside the grid are ignored.
+         */
+        int[] cells = emptyCells();
+        for (MoodRollup day : days) {
+            // Local days are always 24 hours long
+            long index = (day.bucketStart - gridStart) / DAY_MILLIS;
+            if (index >= 0 && index < CELLS && day.count > 0) {
+                cells[(int)index] = colorOf(day);
+            }
+        }
+
+        if (mBitmap == null || gridStart != mGridStart) {
+            mGridStart = gridStart;
+            mCells = cells;
+            render();
+            return;
+        }
+
+        Canvas canvas = new Canvas(mBitmap);
+        boolean changed = false;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] != mCells[i]) {
+                drawCell(canvas, mPaint, i, cells[i], mBitmap.getWidth(), mBitmap.getHeight());
+                changed = true;
+            }
+        }
+        mCells = cells;
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // Square cells across the whole width
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = width * DAYS_PER_WEEK / WEEKS;
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mBitmap = null;
+        render();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (mBitmap != null) {
+            canvas.drawBitmap(mBitmap, 0, 0, null);
+        }
+    }
+
+    private void render() {
+        /**
+         * Draws the whole grid into a new bitmap in the background. Only
+         * the latest request is kept, and until it's done the old bitmap
+         * (if any) stays on screen.
+         */
+        final int width = getWidth();
+        final int height = getHeight();
+        if (width == 0 || height == 0) {
+            return;
+        }
+
+        final int[] cells = mCells;
+        final int request = ++mRenderRequest;
+        AppExecutors.getInstance().execute(new Callable<Bitmap>() {
+            @Override
+            public Bitmap call() {
+                Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                Canvas canvas = new Canvas(bitmap);
+                Paint paint = new Paint();
+                for (int i = 0; i < CELLS; i++) {
+                    drawCell(canvas, paint, i, cells[i], width, height);
+                }
+                return bitmap;
+            }
+        }, new ResultCallback<Bitmap>() {
+            @Override
+            public void onResult(Bitmap bitmap) {
+                if (request != mRenderRequest) {
+                    return;
+                }
+
+                mBitmap = bitmap;
+                // Catch up with anything setDays() changed in the meantime
+                Canvas canvas = new Canvas(bitmap);
+                for (int i = 0; i < CELLS; i++) {
+                    if (mCells[i] != cells[i]) {
+                        drawCell(canvas, mPaint, i, mCells[i], width, height);
+                    }
+                }
+                invalidate();
+            }
+        });
+    }
+
+    private static void drawCell(Canvas canvas, Paint paint, int index, int color,
+                                 int width, int height) {
+        float size = Math.min((float)width / WEEKS, (float)height / DAYS_PER_WEEK);
+        float gap = size * GAP_FRACTION;
+        float left = (index / DAYS_PER_WEEK) * size;
+        float top = (index % DAYS_PER_WEEK) * size;
+
+        // Clear first, the colors can be translucent
+        paint.setXfermode(CLEAR);
+        canvas.drawRect(left, top, left + size, top + size, paint);
+        paint.setXfermode(null);
+        paint.setColor(color);
+        canvas.drawRect(left + gap, top + gap, left + size - gap, top + size - gap, paint);
+    }
+
+    private int colorOf(MoodRollup day) {
+        int mood = (int)Math.round(day.getAverageValue());
+        int color = mMoodColors[Math.min(mMoodColors.length, Math.max(1, mood)) - 1];
+        // Severity 1-5 from faint to solid
+        double severity = Math.min(5, Math.max(1, day.getAverageSeverity()));
+        int alpha = (int)Math.round(255 * (0.35 + 0.65 * (severity - 1) / 4));
+        return Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color));
+    }
+
+    private int[] emptyCells() {
+        int[] cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            cells[i] = mEmptyColor;
+        }
+        return cells;
+    }
+}
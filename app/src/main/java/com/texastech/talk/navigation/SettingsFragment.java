@@ -1,16 +1,185 @@
-package com.texastech.talk.navigation;
-
-import android.os.Bundle;
-
-import androidx.preference.PreferenceFragmentCompat;
-
-
-import com.texastech.talk.R;
-
-
-public class SettingsFragment extends PreferenceFragmentCompat {
-    @Override
-    public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
-        setPreferencesFromResource(R.xml.preferences, rootKey);
-    }
-}
+package com.texastech.talk.navigation;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.widget.Toast;
+
+import androidx.annotation.Nullable;
+import androidx.preference.Preference;
+import androidx.preference.PreferenceFragmentCompat;
+import androidx.preference.PreferenceManager;
+
+
+import com.texastech.talk.R;
+import com.texastech.talk.backup.BackupFormat;
+import com.texastech.talk.backup.DataExporter;
+import com.texastech.talk.backup.DataImporter;
+import com.texastech.talk.backup.ProgressListener;
+import com.texastech.talk.database.ImportCheckpoint;
+import com.texastech.talk.database.ResultCallback;
+
+
+public class SettingsFragment extends PreferenceFragmentCompat {
+    /**
+     * The settings screen. Besides the plain preferences it starts the
+     * export and import, letting the user pick the file through the
+     * system picker, and offers to resume an import that was cut short.
+     */
+    private static final String EXPORT_FORMAT_KEY = "export_format";
+    private static final String EXPORT_KEY = "export";
+    private static final String IMPORT_KEY = "import";
+    private static final int CREATE_EXPORT_REQUEST = 1;
+    private static final int OPEN_IMPORT_REQUEST = 2;
+
+    private ImportCheckpoint mPendingImport;
+
+    @Override
+    public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
+        setPreferencesFromResource(R.xml.preferences, rootKey);
+
+        Preference export = findPreference(EXPORT_KEY);
+        if (export != null) {
+            export.setOnPreferenceClickListener(new Preference.OnPreferenceClickListener() {
+                @Override
+                public boolean onPreferenceClick(Preference preference) {
+                    BackupFormat format = getExportFormat();
+                    Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+                    intent.addCategory(Intent.CATEGORY_OPENABLE);
+                    intent.setType(format.mimeType);
+                    intent.putExtra(Intent.EXTRA_TITLE, "happyminds-export." + format.extension);
+                    startActivityForResult(intent, CREATE_EXPORT_REQUEST);
+                    return true;
+                }
+            });
+        }
+
+        final Preference importData = findPreference(IMPORT_KEY);
+        if (importData != null) {
+            importData.setOnPreferenceClickListener(new Preference.OnPreferenceClickListener() {
+                @Override
+                public boolean onPreferenceClick(Preference preference) {
+                    if (mPendingImport != null) {
+                        importFrom(Uri.parse(mPendingImport.source),
+                                BackupFormat.fromName(mPendingImport.format));
+                        return true;
+                    }
+
+                    Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+                    intent.addCategory(Intent.CATEGORY_OPENABLE);
+                    intent.setType("*/*");
+                    intent.putExtra(Intent.EXTRA_MIME_TYPES, new String[]{
+                            BackupFormat.CSV.mimeType, BackupFormat.NDJSON.mimeType,
+                            "application/json", "text/*"});
+                    startActivityForResult(intent, OPEN_IMPORT_REQUEST);
+                    return true;
+                }
+            });
+
+            refreshPendingImport(importData);
+        }
+    }
+
+    @Override
+    public void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (requestCode == CREATE_EXPORT_REQUEST && resultCode == Activity.RESULT_OK
+                && data != null && data.getData() != null) {
+            exportTo(data.getData());
+        } else if (requestCode == OPEN_IMPORT_REQUEST && resultCode == Activity.RESULT_OK
+                && data != null && data.getData() != null) {
+            // Keep access to the file so an interrupted import can be resumed later
+            Uri uri = data.getData();
+            requireContext().getContentResolver().takePersistableUriPermission(
+                    uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            importFrom(uri, null);
+        }
+    }
+
+    private BackupFormat getExportFormat() {
+        return BackupFormat.fromName(PreferenceManager
+                .getDefaultSharedPreferences(requireContext())
+                .getString(EXPORT_FORMAT_KEY, BackupFormat.CSV.name()));
+    }
+
+    private void exportTo(Uri uri) {
+        /**
+         * Runs the export in the background, showing its progress in the
+         * summary of the export preference.
+         */
+        final Preference export = findPreference(EXPORT_KEY);
+        if (export == null) {
+            return;
+        }
+
+        export.setEnabled(false);
+        DataExporter exporter = new DataExporter(requireContext());
+        exporter.export(uri, getExportFormat(), new ProgressListener() {
+            @Override
+            public void onProgress(long done, long total) {
+                int percent = total > 0 ? (int)(100 * done / total) : 100;
+                export.setSummary(export.getContext().getString(R.string.export_progress, percent));
+            }
+        }, new ResultCallback<Boolean>() {
+            @Override
+            public void onResult(Boolean success) {
+                export.setEnabled(true);
+                export.setSummary(R.string.export_summary);
+                Toast.makeText(export.getContext(),
+                        success ? R.string.export_done : R.string.export_failed,
+                        Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void importFrom(Uri uri, @Nullable BackupFormat format) {
+        /**
+         * Runs the import in the background, showing its progress in the
+         * summary of the import preference.
+         */
+        final Preference importData = findPreference(IMPORT_KEY);
+        if (importData == null) {
+            return;
+        }
+
+        importData.setEnabled(false);
+        importData.setSummary(R.string.import_running);
+        DataImporter importer = new DataImporter(requireContext());
+        importer.importFrom(uri, format, new ProgressListener() {
+            @Override
+            public void onProgress(long done, long total) {
+                if (total > 0) {
+                    int percent = (int)Math.min(100, 100 * done / total);
+                    importData.setSummary(importData.getContext().getString(R.string.import_progress, percent));
+                }
+            }
+        }, new ResultCallback<DataImporter.Result>() {
+            @Override
+            public void onResult(DataImporter.Result result) {
+                importData.setEnabled(true);
+                refreshPendingImport(importData);
+                String message = result.success
+                        ? importData.getContext().getString(
+                                R.string.import_done, result.imported, result.duplicates)
+                        : importData.getContext().getString(R.string.import_failed);
+                Toast.makeText(importData.getContext(), message, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void refreshPendingImport(final Preference importData) {
+        /**
+         * Looks for an import that didn't finish so tapping the preference
+         * resumes it instead of asking for a file.
+         */
+        new DataImporter(importData.getContext()).getPendingImport(new ResultCallback<ImportCheckpoint>() {
+            @Override
+            public void onResult(ImportCheckpoint checkpoint) {
+                mPendingImport = checkpoint;
+                importData.setSummary(checkpoint != null
+                        ? R.string.import_resume_summary : R.string.import_summary);
+            }
+        });
+    }
+}
@@ -0,0 +1,203 @@
+package com.texastech.talk.navigation;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.room.InvalidationTracker;
+
+import com.texastech.talk.R;
+import com.texastech.talk.database.AppDatabase;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.MoodSeries;
+import com.texastech.talk.database.MoodStats;
+import com.texastech.talk.database.MoodStatsStore;
+import com.texastech.talk.database.ResultCallback;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+public class StatisticsCache {
+    /**
+     * Everything the statistics tab shows when it opens, built ahead of
+     * time. Whenever the Mood table changes the week chart and the summary
+     * are rebuilt on the database pool, so opening the tab only has to
+     * hand prebuilt data to the views instead of loading and building it
+     * before the first frame.
+     *
+     * A prepared result is only served for the chart width it was built
+     * for, and for up to MAX_AGE_MILLIS since the week it shows ends when
+     * it was built.
+     */
+    static final long MAX_AGE_MILLIS = 60 * 60 * 1000;
+
+    private static StatisticsCache mSingleInstance;
+
+    private final AppDatabase mDatabase;
+    private final MoodSeries mSeries;
+    private final MoodStatsStore mStats;
+    private final AppExecutors mExecutors;
+    private final int mColor;
+
+    private Prepared mPrepared = null;
+    private int mGeneration = 0;
+    private int mMaxPoints;
+
+    static class Prepared {
+        final MoodSeries.Snapshot series;
+        final MoodChartBuilder.Chart chart;
+        final MoodStats.Summary summary;
+        final int maxPoints;
+        final long builtAt;
+
+        Prepared(MoodSeries.Snapshot series, MoodChartBuilder.Chart chart,
+                 MoodStats.Summary summary, int maxPoints, long builtAt) {
+            this.series = series;
+            this.chart = chart;
+            this.summary = summary;
+            this.maxPoints = maxPoints;
+            this.builtAt = builtAt;
+        }
+    }
+
+    StatisticsCache(final AppDatabase database, MoodSeries series, MoodStatsStore stats,
+                    AppExecutors executors, int color, int maxPoints) {
+        mDatabase = database;
+        mSeries = series;
+        mStats = stats;
+        mExecutors = executors;
+        mColor = color;
+        mMaxPoints = maxPoints;
+
+        final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("Mood") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+
+        // Registering may have to create the tracking triggers so keep it off the main thread
+        executors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                database.getInvalidationTracker().addObserver(observer);
+            }
+        });
+    }
+
+    public static StatisticsCache getInstance(final Context context) {
+        if (mSingleInstance == null) {
+            synchronized (StatisticsCache.class) {
+                if (mSingleInstance == null) {
+                    Context app = context.getApplicationContext();
+                    mSingleInstance = new StatisticsCache(
+                            AppDatabase.getDatabase(app), MoodSeries.getInstance(app),
+                            MoodStatsStore.getInstance(app), AppExecutors.getInstance(),
+                            ContextCompat.getColor(app, R.color.colorBottomNavActive),
+                            app.getResources().getDisplayMetrics().widthPixels);
+                }
+            }
+        }
+
+        return mSingleInstance;
+    }
+
+    @Nullable
+    synchronized Prepared getIfReady(int maxPoints) {
+        /**
+         * Returns the prepared data if it's current and was built for
+         * maxPoints, otherwise null. Never blocks.
+         */
+        mMaxPoints = maxPoints;
+        Prepared prepared = mPrepared;
+        if (prepared == null || prepared.maxPoints != maxPoints
+                || System.currentTimeMillis() - prepared.builtAt > MAX_AGE_MILLIS) {
+            return null;
+        }
+        return prepared;
+    }
+
+    void load(final int maxPoints, final ResultCallback<Prepared> callback) {
+        /**
+         * Builds the data in the background and keeps it for next time.
+         */
+        mExecutors.execute(new Callable<Prepared>() {
+            @Override
+            public Prepared call() {
+                return prepare(maxPoints);
+            }
+        }, callback);
+    }
+
+    public void warmUp() {
+        /**
+         * Prepares the data for the width last asked for, the screen's
+         * until the tab has been shown, unless it's already prepared. Run
+         * at startup so the first visit to the tab finds it ready. Has to
+         * run on a background thread.
+         */
+        int maxPoints;
+        synchronized (this) {
+            if (mPrepared != null) {
+                return;
+            }
+            maxPoints = mMaxPoints;
+        }
+        prepare(maxPoints);
+    }
+
+    Prepared prepare(int maxPoints) {
+        /**
+         * Builds the data now and keeps it unless the moods changed while
+         * it was being built. The series and the summary are read in one
+         * transaction so they always agree on which moods there are. Has
+         * to run on a background thread.
+         */
+        int generation;
+        synchronized (this) {
+            generation = mGeneration;
+        }
+
+        final MoodSeries.Snapshot[] series = new MoodSeries.Snapshot[1];
+        MoodStats.Summary summary = mDatabase.runInTransaction(new Callable<MoodStats.Summary>() {
+            @Override
+            public MoodStats.Summary call() {
+                series[0] = mSeries.load();
+                return mStats.summarize();
+            }
+        });
+        long now = System.currentTimeMillis();
+        MoodChartBuilder.Chart chart = MoodChartBuilder.build(series[0], ChartRange.WEEK, now, maxPoints, mColor);
+        Prepared prepared = new Prepared(series[0], chart, summary, maxPoints, now);
+
+        synchronized (this) {
+            if (generation == mGeneration) {
+                mPrepared = prepared;
+            }
+        }
+        return prepared;
+    }
+
+    private void invalidate() {
+        /**
+         * Drops the prepared data and rebuilds it in the background for the
+         * width the tab last asked for. Called after the Mood table changed,
+         * by which time the MoodSeries and the statistics include the change.
+         */
+        final int maxPoints;
+        synchronized (this) {
+            mGeneration++;
+            mPrepared = null;
+            maxPoints = mMaxPoints;
+        }
+
+        // Not on the tracker's own thread, other observers are waiting behind it
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                prepare(maxPoints);
+            }
+        });
+    }
+}
@@ -1,147 +1,439 @@
-package com.texastech.talk.navigation;
-
-import android.graphics.Color;
-import android.os.Bundle;
-import android.util.Log;
-import android.view.LayoutInflater;
-import android.view.View;
-import android.view.ViewGroup;
-
-import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
-import androidx.core.content.ContextCompat;
-import androidx.fragment.app.Fragment;
-
-import com.github.mikephil.charting.charts.LineChart;
-import com.github.mikephil.charting.components.XAxis;
-import com.github.mikephil.charting.components.YAxis;
-import com.github.mikephil.charting.data.Entry;
-import com.github.mikephil.charting.data.LineData;
-import com.github.mikephil.charting.data.LineDataSet;
-import com.github.mikephil.charting.formatter.IndexAxisValueFormatter;
-import com.github.mikephil.charting.utils.EntryXComparator;
-import com.texastech.talk.R;
-import com.texastech.talk.database.AppDatabase;
-import com.texastech.talk.database.Mood;
-import com.texastech.talk.database.MoodDao;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-public class StatisticsFragment extends Fragment {
-    /**
-     * Fragment responsible for displaying the statistics information
-     * to the user. This information is mainly the moods graph that displays a
-     * user's moods over the past week.
-     */
-    public StatisticsFragment() {
-        // Required.
-    }
-
-    public static StatisticsFragment newInstance() {
-        /**
-         * TODO: This is missing the original params from the previous version
-         *  so make sure not to introduce bugs by refactoring. Also determine
-         *  if this is required by the Navigation component. If not, remove.
-         */
-        return new StatisticsFragment();
-    }
-
-    @Override
-    public void onCreate(@Nullable Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-    }
-
-    @Nullable
-    @Override
-    public View onCreateView(@NonNull LayoutInflater inflater,
-                             @Nullable ViewGroup container,
-                             @Nullable Bundle savedInstanceState) {
-        return inflater.inflate(R.layout.fragment_statistics, container, false);
-    }
-
-    @Override
-    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
-        /**
-         * This basically acts as a view refresh function so it's what we use to
-         * display the graph information with the latest information.
-         */
-        super.onViewCreated(view, savedInstanceState);
-
-        drawMoodGraph(view);
-    }
-
-    private List<Mood> getPastWeekMoods(View view) {
-        /**
-         * Gets the user's moods from the past 7 days.
-         */
-        AppDatabase database = AppDatabase.getDatabase(view.getContext());
-        MoodDao moodDao = database.moodDao();
-
-        List<Mood> pastMoods = new ArrayList<>();
-        List<Mood> allMoods = moodDao.getAll();
-        for (int i = 0; i < 7 && i < allMoods.size(); i++) {
-            pastMoods.add(allMoods.get(i));
-        }
-
-        return pastMoods;
-    }
-
-    private void drawMoodGraph(View view) {
-        /**
-         * Uses MPAndroidChart to draw the mood graph.
-         */
-        AppDatabase database = AppDatabase.getDatabase(view.getContext());
-        MoodDao moodDao = database.moodDao();
-        List<Mood> allMoods = moodDao.getAll();
-        List<Mood> pastWeekMoods = new ArrayList<>();
-        int count = 0;
-        for (int i = allMoods.size() - 1; i >= 0 && count < 7; i--) {
-            pastWeekMoods.add(allMoods.get(i));
-            count++;
-        }
-        Log.d("SizeLog", String.format("Got last %d elements", pastWeekMoods.size()));
-
-        List<Entry> entries = new ArrayList<>();
-        for (Mood mood : pastWeekMoods) {
-            Log.d("Statistics", String.format("Found entry: %d %d", mood.date, mood.value));
-            entries.add(new Entry(mood.date, mood.value));
-        }
-        Collections.sort(entries, new EntryXComparator());
-
-        // TODO: Color in the different moods differently
-        LineDataSet dataSet = new LineDataSet(entries, "Mood History");
-        dataSet.setColor(R.color.colorBottomNavActive);
-        dataSet.setValueTextColor(R.color.colorBottomNavActive);
-        dataSet.setMode(LineDataSet.Mode.CUBIC_BEZIER);
-        dataSet.setDrawFilled(true);
-        dataSet.setLineWidth(4.0f);
-        dataSet.setHighlightLineWidth(4);
-        dataSet.setColor(ContextCompat.getColor(getContext(), R.color.colorBottomNavActive));
-
-        LineChart chart = view.findViewById(R.id.mood_chart);
-        chart.getDescription().setEnabled(false);
-        chart.getAxisLeft().setTextColor(Color.WHITE);
-        chart.getXAxis().setTextColor(Color.WHITE);
-        chart.getXAxis().setAxisMinimum(1);
-        chart.getXAxis().setAxisMaximum(7);
-        chart.getLegend().setEnabled(false);
-        chart.getAxisLeft().setDrawGridLines(false);
-        chart.getAxisRight().setDrawGridLines(false);
-        XAxis xAxis = chart.getXAxis();
-        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
-        xAxis.disableAxisLineDashedLine();
-        xAxis.setDrawLabels(false);
-
-        String[] weekdays = {"Sun", "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
-        xAxis.setValueFormatter(new IndexAxisValueFormatter(weekdays));
-
-        YAxis yAxisRight = chart.getAxisRight();
-        yAxisRight.setDrawLabels(false);
-
-        LineData lineData = new LineData(dataSet);
-        chart.setData(lineData);
-        chart.invalidate();
-    }
-}
\ No newline at end of file
+package com.texastech.talk.navigation;
+
+import android.graphics.Color;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.fragment.app.Fragment;
+
+import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.components.YAxis;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.github.mikephil.charting.listener.ChartTouchListener;
+import com.github.mikephil.charting.listener.OnChartGestureListener;
+import com.texastech.talk.R;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.MoodRepository;
+import com.texastech.talk.database.MoodRollup;
+import com.texastech.talk.database.MoodSeries;
+import com.texastech.talk.database.MoodStats;
+import com.texastech.talk.database.ResultCallback;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+public class StatisticsFragment extends Fragment {
+    /**
+     * Fragment responsible for displaying the statistics information
+     * to the user. This information is mainly the moods graph that displays a
+     * user's moods over the past week, month, year or all time, with a
+     * summary of the running statistics and a heatmap of the past year
+     * above it. The graph zooms in on the x axis with a pinch.
+     *
+     * What the tab shows is kept in a StatisticsViewModel, so switching
+     * back to it rebinds that unless a mood was written in the meantime.
+     */
+    private StatisticsViewModel mViewModel;
+    private int mChartRequest = 0;
+
+    public StatisticsFragment() {
+        // Required.
+    }
+
+    public static StatisticsFragment newInstance() {
+        /**
+         * TODO: This is missing the original params from the previous version
+         *  so make sure not to introduce bugs by refactoring. Also determine
+         *  if this is required by the Navigation component. If not, remove.
+         */
+        return new StatisticsFragment();
+    }
+
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+    }
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_statistics, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull final View view, @Nullable Bundle savedInstanceState) {
+        /**
+         * This basically acts as a view refresh function so it's what we use to
+         * display the graph information with the latest information. The week
+         * graph and the summary are normally still in the StatisticsViewModel
+         * or ready in the StatisticsCache and only need binding, otherwise
+         * they're built in the background and shown once they arrive.
+         */
+        super.onViewCreated(view, savedInstanceState);
+
+        final LineChart chart = view.findViewById(R.id.mood_chart);
+        setUpChart(chart);
+        chart.setOnChartGestureListener(new ChartGestureAdapter() {
+            @Override
+            public void onChartGestureEnd(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {
+                if (lastPerformedGesture == ChartTouchListener.ChartGesture.X_ZOOM
+                        || lastPerformedGesture == ChartTouchListener.ChartGesture.PINCH_ZOOM
+                        || lastPerformedGesture == ChartTouchListener.ChartGesture.DOUBLE_TAP
+                        || lastPerformedGesture == ChartTouchListener.ChartGesture.DRAG) {
+                    refineVisibleWindow(view, chart);
+                }
+            }
+        });
+
+        // Back to the range the user was looking at before switching tabs
+        mViewModel = TabViewModel.of(this, StatisticsViewModel.class);
+        RadioGroup ranges = view.findViewById(R.id.chart_ranges);
+        ranges.check(idFor(mViewModel.getRange()));
+        ranges.setOnCheckedChangeListener(new RadioGroup.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(RadioGroup group, int checkedId) {
+                ChartRange range = rangeFor(checkedId);
+                if (range == mViewModel.getRange()) {
+                    // Restoring the view's state checks the same button again
+                    return;
+                }
+
+                mViewModel.setRange(range);
+                if (mViewModel.getSeries() != null) {
+                    drawMoodGraph(view);
+                }
+            }
+        });
+
+        long gridStart = MoodHeatmapView.gridStart(System.currentTimeMillis());
+        List<MoodRollup> days = mViewModel.getHeatmapDays(gridStart);
+        MoodStats.Summary summary = mViewModel.getSummary();
+        MoodChartBuilder.Chart kept = mViewModel.getChart();
+        if (!mViewModel.isStale() && days != null && summary != null
+                && kept != null && kept.range == mViewModel.getRange()) {
+            MoodHeatmapView heatmap = view.findViewById(R.id.mood_heatmap);
+            heatmap.setDays(gridStart, days);
+            showSummary(view, summary);
+            mChartRequest++;
+            bindChart(view, kept);
+            return;
+        }
+
+        mViewModel.markFresh();
+        loadHeatmap(view);
+
+        // Usually prepared in the background since the last mood was saved
+        StatisticsCache cache = StatisticsCache.getInstance(view.getContext());
+        StatisticsCache.Prepared prepared = cache.getIfReady(getChartWidth(view));
+        if (prepared != null) {
+            showPrepared(view, prepared);
+            return;
+        }
+
+        cache.load(getChartWidth(view), new ResultCallback<StatisticsCache.Prepared>() {
+            @Override
+            public void onResult(StatisticsCache.Prepared prepared) {
+                if (getView() == view) {
+                    showPrepared(view, prepared);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onStart() {
+        /**
+         * Moods saved while the tab is showing, say by the mood logger
+         * flushing, update the heatmap's days as they're written.
+         */
+        super.onStart();
+        mViewModel.setOnChanged(new Runnable() {
+            @Override
+            public void run() {
+                if (getView() != null) {
+                    loadHeatmap(getView());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        mViewModel.setOnChanged(null);
+    }
+
+    private void loadHeatmap(final View view) {
+        /**
+         * Feeds the heatmap the daily rollups of the year it covers, a few
+         * hundred rows at most however many moods there are.
+         */
+        final long gridStart = MoodHeatmapView.gridStart(System.currentTimeMillis());
+        MoodRepository.getInstance(view.getContext()).getRollups(MoodRollup.DAY, gridStart, Long.MAX_VALUE,
+                new ResultCallback<List<MoodRollup>>() {
+            @Override
+            public void onResult(List<MoodRollup> days) {
+                mViewModel.setHeatmapDays(gridStart, days);
+                if (getView() == view) {
+                    MoodHeatmapView heatmap = view.findViewById(R.id.mood_heatmap);
+                    heatmap.setDays(gridStart, days);
+                }
+            }
+        });
+    }
+
+    private void showPrepared(View view, StatisticsCache.Prepared prepared) {
+        mViewModel.setSeries(prepared.series, prepared.summary);
+        showSummary(view, prepared.summary);
+        if (mViewModel.getRange() == prepared.chart.range) {
+            // Drop any chart still being built for an earlier request
+            mChartRequest++;
+            bindChart(view, prepared.chart);
+        } else {
+            drawMoodGraph(view);
+        }
+    }
+
+    private void showSummary(View view, MoodStats.Summary summary) {
+        /**
+         * Writes out the rolling windows, the moving average and streak,
+         * and how often each mood was logged.
+         */
+        if (summary.count == 0) {
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (MoodStats.Window window : summary.windows) {
+            text.append(getString(R.string.stats_window, window.days, window.valueMean,
+                    Math.sqrt(window.valueVariance), window.severityMean, window.count));
+            text.append('\n');
+        }
+        text.append(getString(R.string.stats_trend, summary.movingAverage, summary.currentStreak,
+                summary.currentStreakValue, summary.longestStreaks[summary.currentStreakValue - 1]));
+        text.append('\n');
+
+        StringBuilder distribution = new StringBuilder();
+        for (int i = 0; i < summary.distribution.length; i++) {
+            if (i > 0) {
+                distribution.append(" · ");
+            }
+            distribution.append(summary.distribution[i]);
+        }
+        text.append(getString(R.string.stats_distribution, distribution));
+
+        TextView summaryView = view.findViewById(R.id.mood_summary);
+        summaryView.setText(text);
+    }
+
+    private void setUpChart(LineChart chart) {
+        /**
+         * Only the x axis zooms, the moods always span the whole y axis.
+         */
+        chart.getDescription().setEnabled(false);
+        chart.getAxisLeft().setTextColor(Color.WHITE);
+        chart.getXAxis().setTextColor(Color.WHITE);
+        chart.getLegend().setEnabled(false);
+        chart.getAxisLeft().setDrawGridLines(false);
+        chart.getAxisRight().setDrawGridLines(false);
+        chart.setScaleXEnabled(true);
+        chart.setScaleYEnabled(false);
+        chart.setDragEnabled(true);
+        // So the visible window is final when the gesture ends
+        chart.setDragDecelerationEnabled(false);
+        chart.setNoDataTextColor(Color.WHITE);
+        XAxis xAxis = chart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.disableAxisLineDashedLine();
+        xAxis.setGranularity(1);
+
+        YAxis yAxisRight = chart.getAxisRight();
+        yAxisRight.setDrawLabels(false);
+    }
+
+    private void drawMoodGraph(final View view) {
+        /**
+         * Uses MPAndroidChart to draw the mood graph over the chosen range.
+         * The data is built on the database pool, downsampled to the width
+         * of the chart, and only a result for the latest request is drawn.
+         */
+        final ChartRange range = mViewModel.getRange();
+        final MoodSeries.Snapshot series = mViewModel.getSeries();
+        final int maxPoints = getChartWidth(view);
+        final int color = ContextCompat.getColor(view.getContext(), R.color.colorBottomNavActive);
+        final int request = ++mChartRequest;
+
+        TextView title = view.findViewById(R.id.chart_title);
+        title.setText(range.titleId);
+
+        AppExecutors.getInstance().execute(new Callable<MoodChartBuilder.Chart>() {
+            @Override
+            public MoodChartBuilder.Chart call() {
+                return MoodChartBuilder.build(series, range, System.currentTimeMillis(), maxPoints, color);
+            }
+        }, new ResultCallback<MoodChartBuilder.Chart>() {
+            @Override
+            public void onResult(MoodChartBuilder.Chart result) {
+                if (getView() == view && request == mChartRequest) {
+                    bindChart(view, result);
+                }
+            }
+        });
+    }
+
+    private void bindChart(View view, MoodChartBuilder.Chart result) {
+        mViewModel.setChart(result);
+        TextView title = view.findViewById(R.id.chart_title);
+        title.setText(result.range.titleId);
+
+        LineChart chart = view.findViewById(R.id.mood_chart);
+        chart.fitScreen();
+        XAxis xAxis = chart.getXAxis();
+        xAxis.setAxisMinimum(0);
+        xAxis.setAxisMaximum(result.maxX);
+        xAxis.setValueFormatter(new DateAxisFormatter(result.base, result.range.labelPattern));
+        chart.setData(result.data);
+        chart.invalidate();
+    }
+
+    private void refineVisibleWindow(final View view, LineChart chart) {
+        /**
+         * After a zoom or a drag, rebuilds the data for what's visible at
+         * the chart's resolution, along with a window's width either side
+         * so a short drag doesn't run into the coarser data.
+         */
+        final MoodChartBuilder.Chart current = mViewModel.getChart();
+        final MoodSeries.Snapshot series = mViewModel.getSeries();
+        if (current == null || series == null) {
+            return;
+        }
+
+        float low = chart.getLowestVisibleX();
+        float high = chart.getHighestVisibleX();
+        float width = high - low;
+        final long from = MoodChartBuilder.toTimestamp(current.base, low - width);
+        final long to = MoodChartBuilder.toTimestamp(current.base, high + width);
+        final int maxPoints = 3 * getChartWidth(view);
+        final int color = ContextCompat.getColor(view.getContext(), R.color.colorBottomNavActive);
+        final int request = ++mChartRequest;
+
+        AppExecutors.getInstance().execute(new Callable<LineData>() {
+            @Override
+            public LineData call() {
+                return MoodChartBuilder.buildData(series, current.base, from, to, maxPoints, color);
+            }
+        }, new ResultCallback<LineData>() {
+            @Override
+            public void onResult(LineData data) {
+                if (getView() == view && request == mChartRequest) {
+                    // The axis range stays the same so the zoom and position are kept
+                    LineChart chart = view.findViewById(R.id.mood_chart);
+                    chart.setData(data);
+                    chart.invalidate();
+                }
+            }
+        });
+    }
+
+    private static int getChartWidth(View view) {
+        /**
+         * The chart's width in pixels, or the screen's before it's laid out.
+         */
+        LineChart chart = view.findViewById(R.id.mood_chart);
+        int width = (int)chart.getViewPortHandler().contentWidth();
+        return width > 0 ? width : view.getResources().getDisplayMetrics().widthPixels;
+    }
+
+    private static ChartRange rangeFor(int checkedId) {
+        if (checkedId == R.id.chart_range_month) {
+            return ChartRange.MONTH;
+        } else if (checkedId == R.id.chart_range_year) {
+            return ChartRange.YEAR;
+        } else if (checkedId == R.id.chart_range_all) {
+            return ChartRange.ALL;
+        }
+        return ChartRange.WEEK;
+    }
+
+    private static int idFor(ChartRange range) {
+        switch (range) {
+            case MONTH:
+                return R.id.chart_range_month;
+            case YEAR:
+                return R.id.chart_range_year;
+            case ALL:
+                return R.id.chart_range_all;
+            default:
+                return R.id.chart_range_week;
+        }
+    }
+
+    private static class DateAxisFormatter extends ValueFormatter {
+        /**
+         * Labels the x axis, which is in days since base, with dates.
+         */
+        private final long mBase;
+        private final SimpleDateFormat mFormat;
+        private final Date mDate = new Date();
+
+        DateAxisFormatter(long base, String pattern) {
+            mBase = base;
+            mFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+        }
+
+        @Override
+        public String getFormattedValue(float value) {
+            mDate.setTime(MoodChartBuilder.toTimestamp(mBase, value));
+            return mFormat.format(mDate);
+        }
+    }
+
+    private abstract static class ChartGestureAdapter implements OnChartGestureListener {
+        @Override
+        public void onChartGestureStart(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {
+        }
+
+        @Override
+        public void onChartGestureEnd(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {
+        }
+
+        @Override
+        public void onChartLongPressed(MotionEvent me) {
+        }
+
+        @Override
+        public void onChartDoubleTapped(MotionEvent me) {
+        }
+
+        @Override
+        public void onChartSingleTapped(MotionEvent me) {
+        }
+
+        @Override
+        public void onChartFling(MotionEvent me1, MotionEvent me2, float velocityX, float velocityY) {
+        }
+
+        @Override
+        public void onChartScale(MotionEvent me, float scaleX, float scaleY) {
+        }
+
+        @Override
+        public void onChartTranslate(MotionEvent me, float dX, float dY) {
+        }
+    }
+}
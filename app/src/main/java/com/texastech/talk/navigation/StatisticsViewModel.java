@@ -0,0 +1,88 @@
+package com.texastech.talk.navigation;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.texastech.talk.database.MoodRollup;
+import com.texastech.talk.database.MoodSeries;
+import com.texastech.talk.database.MoodStats;
+
+import java.util.List;
+
+public class StatisticsViewModel extends TabViewModel {
+    /**
+     * What the statistics tab last showed: the chosen range, the moods
+     * and summary it was built from, the chart for that range and the
+     * heatmap's days. Any mood written makes all of it stale, and so
+     * does time since the week chart ends at the moment it was built.
+     */
+    private ChartRange mRange = ChartRange.WEEK;
+    private MoodSeries.Snapshot mSeries = null;
+    private MoodStats.Summary mSummary = null;
+    private MoodChartBuilder.Chart mChart = null;
+    private long mHeatmapStart = 0;
+    private List<MoodRollup> mHeatmapDays = null;
+    private long mLoadedAt = 0;
+
+    public StatisticsViewModel(@NonNull Application application) {
+        super(application, "Mood", "mood_rollup");
+    }
+
+    @Override
+    boolean isStale() {
+        return super.isStale() || System.currentTimeMillis() - mLoadedAt > StatisticsCache.MAX_AGE_MILLIS;
+    }
+
+    @Override
+    void markFresh() {
+        super.markFresh();
+        mLoadedAt = System.currentTimeMillis();
+    }
+
+    ChartRange getRange() {
+        return mRange;
+    }
+
+    void setRange(ChartRange range) {
+        mRange = range;
+    }
+
+    @Nullable
+    MoodSeries.Snapshot getSeries() {
+        return mSeries;
+    }
+
+    @Nullable
+    MoodStats.Summary getSummary() {
+        return mSummary;
+    }
+
+    void setSeries(MoodSeries.Snapshot series, MoodStats.Summary summary) {
+        mSeries = series;
+        mSummary = summary;
+    }
+
+    @Nullable
+    MoodChartBuilder.Chart getChart() {
+        return mChart;
+    }
+
+    void setChart(MoodChartBuilder.Chart chart) {
+        mChart = chart;
+    }
+
+    @Nullable
+    List<MoodRollup> getHeatmapDays(long gridStart) {
+        /**
+         * The heatmap's days, as long as they were loaded for the same grid.
+         */
+        return gridStart == mHeatmapStart ? mHeatmapDays : null;
+    }
+
+    void setHeatmapDays(long gridStart, List<MoodRollup> days) {
+        mHeatmapStart = gridStart;
+        mHeatmapDays = days;
+    }
+}
@@ -0,0 +1,101 @@
+package com.texastech.talk.navigation;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.room.InvalidationTracker;
+
+import com.texastech.talk.database.AppDatabase;
+import com.texastech.talk.database.AppExecutors;
+
+import java.util.Set;
+
+abstract class TabViewModel extends AndroidViewModel {
+    /**
+     * Holds what a bottom navigation tab shows for as long as MainActivity
+     * lives. Switching tabs destroys the tab's view and a configuration
+     * change destroys the whole activity, but the ViewModel survives both,
+     * so coming back to the tab only has to rebind what's kept here.
+     *
+     * The data is stale until it's first loaded and again whenever one of
+     * the tables it comes from is written to, which Room's invalidation
+     * tracker reports. A tab showing at that moment can also be told right
+     * away through setOnChanged(). Everything but the tracker runs on the
+     * main thread.
+     */
+    private final AppDatabase mDatabase;
+    private final AppExecutors mExecutors;
+    private final InvalidationTracker.Observer mObserver;
+    private boolean mStale = true;
+    private Runnable mOnChanged = null;
+
+    TabViewModel(@NonNull Application application, String... tables) {
+        super(application);
+        mDatabase = AppDatabase.getDatabase(application);
+        mExecutors = AppExecutors.getInstance();
+
+        mObserver = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                mExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        mStale = true;
+                        if (mOnChanged != null) {
+                            mOnChanged.run();
+                        }
+                    }
+                });
+            }
+        };
+
+        // Registering may have to create the tracking triggers so keep it off the main thread
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                mDatabase.getInvalidationTracker().addObserver(mObserver);
+            }
+        });
+    }
+
+    static <T extends TabViewModel> T of(Fragment fragment, Class<T> modelClass) {
+        /**
+         * The tab's ViewModel, scoped to the activity rather than the
+         * fragment since the fragment doesn't outlive a tab switch.
+         */
+        Application application = fragment.requireActivity().getApplication();
+        return new ViewModelProvider(fragment.requireActivity(),
+                ViewModelProvider.AndroidViewModelFactory.getInstance(application)).get(modelClass);
+    }
+
+    boolean isStale() {
+        return mStale;
+    }
+
+    void markFresh() {
+        /**
+         * Called right before loading, so a write that lands while the
+         * load is running marks the data stale again.
+         */
+        mStale = false;
+    }
+
+    void setOnChanged(@Nullable Runnable onChanged) {
+        mOnChanged = onChanged;
+    }
+
+    @Override
+    protected void onCleared() {
+        mOnChanged = null;
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                mDatabase.getInvalidationTracker().removeObserver(mObserver);
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.texastech.talk;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.texastech.talk.database.AppDatabase;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.ErrorCallback;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Saves a new journal entry through a NotepadViewModel while a trigger
+ * makes every insert into the journal fail, then again once it's gone.
+ * The failed save has to be reported and mustn't leave the ViewModel
+ * thinking a save is still running, or nothing would ever be saved again.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NotepadViewModelTest {
+    private static final long SAVE_TIMEOUT_MILLIS = 10000;
+
+    @Test
+    public void failedSaveCanBeRetried() throws Exception {
+        Application application = ApplicationProvider.getApplicationContext();
+        final AppDatabase database = AppDatabase.getDatabase(application);
+        execSQL(database, "CREATE TRIGGER `fail_journal_insert` BEFORE INSERT ON `Journal` "
+                + "BEGIN SELECT RAISE(ABORT, 'disk full'); END");
+
+        final Exception[] failure = new Exception[1];
+        final boolean[] saved = new boolean[1];
+        NotepadViewModel viewModel = new NotepadViewModel(application);
+        viewModel.setOnSaveFailed(new ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                failure[0] = error;
+            }
+        });
+        viewModel.open(0, "", "");
+        viewModel.setText("Monday", "A long day.");
+        viewModel.saveNow(new Runnable() {
+            @Override
+            public void run() {
+                saved[0] = true;
+            }
+        });
+
+        long deadline = System.currentTimeMillis() + SAVE_TIMEOUT_MILLIS;
+        while (failure[0] == null) {
+            assertTrue("The failed save was never reported", System.currentTimeMillis() < deadline);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+        assertFalse(saved[0]);
+        assertEquals(0, viewModel.getJournalId());
+
+        execSQL(database, "DROP TRIGGER `fail_journal_insert`");
+        viewModel.saveNow(new Runnable() {
+            @Override
+            public void run() {
+                saved[0] = true;
+            }
+        });
+
+        deadline = System.currentTimeMillis() + SAVE_TIMEOUT_MILLIS;
+        while (!saved[0]) {
+            assertTrue("The retried save never finished", System.currentTimeMillis() < deadline);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+        assertNotEquals(0, viewModel.getJournalId());
+    }
+
+    private static void execSQL(final AppDatabase database, final String sql) throws Exception {
+        /**
+         * Runs sql on the database pool and waits for it, the test itself
+         * runs on the main thread where Room won't run queries.
+         */
+        AppExecutors.getInstance().diskIO().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                database.getOpenHelper().getWritableDatabase().execSQL(sql);
+                return null;
+            }
+        }).get();
+    }
+}
@@ -0,0 +1,142 @@
+package com.texastech.talk;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.preference.PreferenceManager;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.texastech.talk.intro.IntroActivity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Starts MainActivity the way a returning user would and checks where
+ * each StartupPipeline phase ran and how long the critical ones took.
+ *
+ * The phases that were moved off the critical path have to run where they
+ * were moved to, and the critical path as a whole has to fit within
+ * CRITICAL_BUDGET_MILLIS, so a startup regression fails here before it
+ * reaches a release. The first launch loads the classes and resources,
+ * which under Robolectric dwarfs the work itself, so the critical path is
+ * timed on a second launch.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StartupPipelineTest {
+    // For a launch once everything is loaded, with room for a slow machine
+    private static final long CRITICAL_BUDGET_MILLIS = 300;
+    private static final long DEFERRED_TIMEOUT_MILLIS = 10000;
+    private static final String[] CRITICAL_PHASES = {
+            StartupPipeline.PHASE_INTRO_CHECK,
+            StartupPipeline.PHASE_CONTENT_VIEW,
+            StartupPipeline.PHASE_NAVIGATION,
+    };
+    private static final String[] IDLE_PHASES = {
+            StartupPipeline.PHASE_ALARM,
+    };
+    private static final String[] BACKGROUND_PHASES = {
+            StartupPipeline.PHASE_NOTIFICATION_CHANNEL,
+            StartupPipeline.PHASE_DATABASE_OPEN,
+            StartupPipeline.PHASE_STATISTICS_WARM_UP,
+    };
+    // What every launch of MainActivity defers, the rest is the application's
+    private static final String[] ACTIVITY_DEFERRED_PHASES = {
+            StartupPipeline.PHASE_ALARM,
+            StartupPipeline.PHASE_NOTIFICATION_CHANNEL,
+            StartupPipeline.PHASE_STATISTICS_WARM_UP,
+    };
+
+    @Test
+    public void startDefersNonCriticalWork() throws InterruptedException {
+        Context context = ApplicationProvider.getApplicationContext();
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putBoolean(IntroActivity.LAUNCHED_APP_BEFORE, true)
+                .commit();
+
+        // The pipeline outlives the application Robolectric creates for each
+        // test, so drop what earlier ones ran and warm this one up again
+        StartupPipeline.getInstance().clearPhases();
+        ((HappyMindsApplication)context).warmUp();
+
+        // The application's phases are only run once, for the first launch
+        Robolectric.buildActivity(MainActivity.class).setup();
+        List<StartupPipeline.Phase> phases = awaitDeferredPhases(BACKGROUND_PHASES);
+        for (String name : BACKGROUND_PHASES) {
+            check(phases, name, StartupPipeline.BACKGROUND);
+        }
+
+        StartupPipeline.getInstance().clearPhases();
+        Robolectric.buildActivity(MainActivity.class).setup();
+        phases = awaitDeferredPhases(ACTIVITY_DEFERRED_PHASES);
+
+        long criticalNanos = 0;
+        StringBuilder timings = new StringBuilder();
+        for (String name : CRITICAL_PHASES) {
+            StartupPipeline.Phase phase = check(phases, name, StartupPipeline.CRITICAL);
+            criticalNanos += phase.durationNanos;
+            timings.append(String.format("%s: %.2f ms, ", name, phase.durationNanos / 1e6));
+        }
+        for (String name : IDLE_PHASES) {
+            check(phases, name, StartupPipeline.IDLE);
+        }
+        check(phases, StartupPipeline.PHASE_NOTIFICATION_CHANNEL, StartupPipeline.BACKGROUND);
+        check(phases, StartupPipeline.PHASE_STATISTICS_WARM_UP, StartupPipeline.BACKGROUND);
+        assertNull(find(phases, StartupPipeline.PHASE_DATABASE_OPEN));
+
+        double criticalMillis = criticalNanos / 1e6;
+        assertTrue(timings + String.format("critical path: %.2f ms", criticalMillis),
+                criticalMillis < CRITICAL_BUDGET_MILLIS);
+    }
+
+    private static List<StartupPipeline.Phase> awaitDeferredPhases(String[] names)
+            throws InterruptedException {
+        /**
+         * Lets the main thread go idle and waits for the database pool until
+         * every one of the deferred phases has finished.
+         */
+        long deadline = System.currentTimeMillis() + DEFERRED_TIMEOUT_MILLIS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            List<StartupPipeline.Phase> phases = StartupPipeline.getInstance().getPhases();
+            if (hasAll(phases, names)) {
+                return phases;
+            }
+            assertTrue("Deferred startup phases didn't finish", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean hasAll(List<StartupPipeline.Phase> phases, String[] names) {
+        for (String name : names) {
+            if (find(phases, name) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static StartupPipeline.Phase find(List<StartupPipeline.Phase> phases, String name) {
+        // The alarm is scheduled again on every resume, take the latest
+        for (int i = phases.size() - 1; i >= 0; i--) {
+            if (phases.get(i).name.equals(name)) {
+                return phases.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static StartupPipeline.Phase check(List<StartupPipeline.Phase> phases, String name, int kind) {
+        StartupPipeline.Phase phase = find(phases, name);
+        assertNotNull(name, phase);
+        assertEquals(name, kind, phase.kind);
+        return phase;
+    }
+}
@@ -0,0 +1,75 @@
+package com.texastech.talk.backup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes moods and journal entries with RecordWriter and reads them back
+ * with RecordReader in both formats. A mood keeps the offset of the zone
+ * it was logged in, and files from before zone_offset was exported read
+ * without one so the importer can fall back to the current zone.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RecordFormatTest {
+    private static final int TOKYO_OFFSET = 9 * 60 * 60 * 1000;
+    private static final int NEW_YORK_OFFSET = -5 * 60 * 60 * 1000;
+
+    @Test
+    public void moodsKeepTheirZoneOffset() throws IOException {
+        for (BackupFormat format : BackupFormat.values()) {
+            StringWriter out = new StringWriter();
+            RecordWriter writer = new RecordWriter(out, format);
+            writer.writeHeader();
+            writer.writeMood(1500000000000L, 4, 2, TOKYO_OFFSET);
+            writer.writeJournal(1500000001000L, "Title, \"quoted\"", "Two\nlines");
+            writer.writeMood(1500000002000L, 1, 5, NEW_YORK_OFFSET);
+
+            RecordReader reader = reader(out.toString(), format);
+            BackupRecord mood = reader.next();
+            assertTrue(format.name(), mood.isMood());
+            assertEquals(1500000000000L, mood.time);
+            assertEquals(4, mood.value);
+            assertEquals(2, mood.severityLevel);
+            assertEquals(Integer.valueOf(TOKYO_OFFSET), mood.zoneOffset);
+
+            BackupRecord journal = reader.next();
+            assertFalse(format.name(), journal.isMood());
+            assertEquals(1500000001000L, journal.time);
+            assertEquals("Title, \"quoted\"", journal.title);
+            assertEquals("Two\nlines", journal.body);
+
+            mood = reader.next();
+            assertEquals(Integer.valueOf(NEW_YORK_OFFSET), mood.zoneOffset);
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void olderFilesHaveNoZoneOffset() throws IOException {
+        RecordReader reader = reader(
+                "type,time,value,severity_level,title,body\n"
+                        + "mood,1500000000000,4,2,,\n", BackupFormat.CSV);
+        BackupRecord mood = reader.next();
+        assertEquals(4, mood.value);
+        assertNull(mood.zoneOffset);
+
+        reader = reader(
+                "{\"type\":\"mood\",\"time\":1500000000000,\"value\":4,\"severity_level\":2}\n",
+                BackupFormat.NDJSON);
+        mood = reader.next();
+        assertEquals(2, mood.severityLevel);
+        assertNull(mood.zoneOffset);
+    }
+
+    private static RecordReader reader(String text, BackupFormat format) {
+        return new RecordReader(new BufferedReader(new StringReader(text)), format);
+    }
+}
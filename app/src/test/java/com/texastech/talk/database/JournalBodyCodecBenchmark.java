@@ -0,0 +1,131 @@
+package com.texastech.talk.database;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures what compressing long journal bodies buys and costs on a
+ * synthetic corpus: entries from a short note to a long essay, written
+ * from a small vocabulary the way diary prose repeats itself.
+ *
+ * It measures the stored size against the plain UTF-8 size and the time
+ * to read a body back, decoding the plain bytes versus inflating the
+ * compressed ones, and checks that every body round trips exactly. The
+ * figures are in the message of the size checks if they fail.
+ */
+public class JournalBodyCodecBenchmark {
+    private static final int ENTRIES = 2000;
+    private static final int MIN_LENGTH = 200;
+    private static final int MAX_LENGTH = 40000;
+    private static final int READ_ROUNDS = 5;
+    private static final String[] WORDS = {
+            "today", "I", "felt", "really", "tired", "after", "work", "and", "then", "my",
+            "friend", "called", "we", "talked", "about", "the", "week", "anxious", "calm",
+            "walked", "park", "slept", "badly", "better", "than", "yesterday", "grateful",
+            "for", "family", "coffee", "morning", "evening", "class", "exam", "stress",
+            "happy", "sad", "angry", "scared", "because", "it", "was", "a", "long", "day",
+            "tomorrow", "will", "try", "to", "breathe", "write", "more", "music", "helped",
+    };
+
+    // Keeps the decoded bodies alive so the reads aren't optimised away
+    private static int mSink;
+
+    @Test
+    public void compressionSizeAndReadLatency() {
+        List<String> corpus = buildCorpus(new Random(42));
+
+        long plainBytes = 0;
+        long storedBytes = 0;
+        int compressedCount = 0;
+        List<byte[]> plain = new ArrayList<>();
+        List<byte[]> stored = new ArrayList<>();
+        List<Boolean> compressed = new ArrayList<>();
+        for (String body : corpus) {
+            byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+            byte[] deflated = JournalBodyCodec.compressIfWorthIt(body);
+            plainBytes += raw.length;
+            plain.add(raw);
+            if (deflated != null) {
+                compressedCount++;
+                storedBytes += deflated.length;
+                stored.add(deflated);
+                compressed.add(true);
+            } else {
+                storedBytes += raw.length;
+                stored.add(raw);
+                compressed.add(false);
+            }
+        }
+
+        // Warm up both paths before timing them
+        long plainNanos = 0;
+        long storedNanos = 0;
+        for (int round = 0; round <= READ_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (byte[] raw : plain) {
+                consume(new String(raw, StandardCharsets.UTF_8));
+            }
+            long afterPlain = System.nanoTime();
+            for (int i = 0; i < stored.size(); i++) {
+                consume(compressed.get(i)
+                        ? JournalBodyCodec.inflate(stored.get(i))
+                        : new String(stored.get(i), StandardCharsets.UTF_8));
+            }
+            long afterStored = System.nanoTime();
+            if (round > 0) {
+                plainNanos += afterPlain - start;
+                storedNanos += afterStored - afterPlain;
+            }
+        }
+
+        double plainMicros = plainNanos / 1000.0 / READ_ROUNDS / ENTRIES;
+        double storedMicros = storedNanos / 1000.0 / READ_ROUNDS / ENTRIES;
+        for (int i = 0; i < corpus.size(); i++) {
+            if (compressed.get(i)) {
+                assertEquals(corpus.get(i), JournalBodyCodec.inflate(stored.get(i)));
+            }
+        }
+        String summary = String.format(
+                "%d of %d compressed, %d KB plain, %d KB stored, read %.1f us plain, %.1f us stored",
+                compressedCount, ENTRIES, plainBytes / 1024, storedBytes / 1024,
+                plainMicros, storedMicros);
+        assertTrue(summary, compressedCount > 0);
+        assertTrue(summary, storedBytes < plainBytes / 2);
+    }
+
+    @Test
+    public void shortBodiesAreStoredAsIs() {
+        assertNull(JournalBodyCodec.compressIfWorthIt(null));
+        assertNull(JournalBodyCodec.compressIfWorthIt("Felt fine today."));
+    }
+
+    private static List<String> buildCorpus(Random random) {
+        /**
+         * Lengths are spread evenly on a log scale so short notes are as
+         * common as long essays.
+         */
+        List<String> corpus = new ArrayList<>();
+        double logMin = Math.log(MIN_LENGTH);
+        double logMax = Math.log(MAX_LENGTH);
+        for (int i = 0; i < ENTRIES; i++) {
+            int length = (int)Math.exp(logMin + random.nextDouble() * (logMax - logMin));
+            StringBuilder body = new StringBuilder(length + 16);
+            while (body.length() < length) {
+                body.append(WORDS[random.nextInt(WORDS.length)]);
+                body.append(random.nextInt(12) == 0 ? ". " : " ");
+            }
+            corpus.add(body.toString());
+        }
+        return corpus;
+    }
+
+    private static void consume(String text) {
+        mSink += text.length();
+    }
+}
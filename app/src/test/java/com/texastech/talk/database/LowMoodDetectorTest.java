@@ -0,0 +1,120 @@
+package com.texastech.talk.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds the LowMoodDetector synthetic streams of moods and checks when it
+ * says a low-mood episode starts: a run of severe low moods does, a mix
+ * of moods doesn't, an episode is only reported once and the detector
+ * starts over after a long gap.
+ */
+public class LowMoodDetectorTest {
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+    private static final int DEPRESSED = 1;
+    private static final int SAD = 2;
+    private static final int ANGRY = 3;
+    private static final int HAPPY = 6;
+
+    @Test
+    public void severeLowMoodsInARowStartAnEpisode() {
+        LowMoodDetector detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        long time = 0;
+        assertFalse(detector.add(time += HOUR_MILLIS, SAD, 5));
+        assertFalse(detector.add(time += HOUR_MILLIS, DEPRESSED, 5));
+        assertTrue(detector.add(time += HOUR_MILLIS, SAD, 5));
+        assertTrue(detector.isInEpisode());
+    }
+
+    @Test
+    public void mildLowMoodsNeedALongerRun() {
+        LowMoodDetector detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        long time = 0;
+        for (int i = 0; i < 3; i++) {
+            assertFalse(detector.add(time += HOUR_MILLIS, SAD, 4));
+        }
+        assertTrue(detector.add(time += HOUR_MILLIS, SAD, 4));
+
+        detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        for (int i = 0; i < 100; i++) {
+            assertFalse(detector.add(time += HOUR_MILLIS, SAD, 2));
+        }
+    }
+
+    @Test
+    public void mixedMoodsDontStartAnEpisode() {
+        LowMoodDetector detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        long time = 0;
+        for (int i = 0; i < 200; i++) {
+            int value = i % 3 == 0 ? SAD : (i % 3 == 1 ? HAPPY : ANGRY);
+            assertFalse(detector.add(time += HOUR_MILLIS, value, 5));
+        }
+        assertFalse(detector.isInEpisode());
+    }
+
+    @Test
+    public void episodeIsReportedOnceUntilMoodsRecover() {
+        LowMoodDetector detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        long time = 0;
+        int episodes = 0;
+        for (int i = 0; i < 20; i++) {
+            if (detector.add(time += HOUR_MILLIS, SAD, 5)) {
+                episodes++;
+            }
+        }
+        assertEquals(1, episodes);
+
+        // Enough better moods to bring the sum back to zero
+        while (detector.getSum() > 0) {
+            assertFalse(detector.add(time += HOUR_MILLIS, HAPPY, 3));
+        }
+        assertFalse(detector.isInEpisode());
+
+        for (int i = 0; i < 3; i++) {
+            if (detector.add(time += HOUR_MILLIS, DEPRESSED, 5)) {
+                episodes++;
+            }
+        }
+        assertEquals(2, episodes);
+    }
+
+    @Test
+    public void longGapStartsOver() {
+        LowMoodDetector.Config config = LowMoodDetector.DEFAULT_CONFIG;
+        LowMoodDetector detector = new LowMoodDetector(config);
+        long time = 0;
+        assertFalse(detector.add(time += HOUR_MILLIS, SAD, 5));
+        assertFalse(detector.add(time += HOUR_MILLIS, SAD, 5));
+        time += config.maxGapMillis + HOUR_MILLIS;
+        assertFalse(detector.add(time, SAD, 5));
+        assertEquals(5 - config.slack, detector.getSum(), 1e-9);
+        assertFalse(detector.add(time += HOUR_MILLIS, SAD, 5));
+        assertTrue(detector.add(time += HOUR_MILLIS, SAD, 5));
+    }
+
+    @Test
+    public void olderMoodsAreIgnored() {
+        LowMoodDetector detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        long time = 10 * HOUR_MILLIS;
+        assertFalse(detector.add(time, SAD, 5));
+        double sum = detector.getSum();
+        for (int i = 0; i < 5; i++) {
+            assertFalse(detector.add(time - (i + 1) * HOUR_MILLIS, SAD, 5));
+        }
+        assertEquals(sum, detector.getSum(), 1e-9);
+        assertEquals(time, detector.getLastTimestamp());
+    }
+
+    @Test
+    public void restoredDetectorCarriesOn() {
+        LowMoodDetector detector = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        long time = 0;
+        detector.add(time += HOUR_MILLIS, SAD, 5);
+        detector.add(time += HOUR_MILLIS, SAD, 5);
+
+        LowMoodDetector restored = new LowMoodDetector(LowMoodDetector.DEFAULT_CONFIG);
+        restored.restore(detector.getSum(), detector.getLastTimestamp(), detector.isInEpisode());
+        assertTrue(restored.add(time += HOUR_MILLIS, SAD, 5));
+    }
+}
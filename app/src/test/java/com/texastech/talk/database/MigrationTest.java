@@ -0,0 +1,180 @@
+package com.texastech.talk.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replays every migration in Migrations.ALL against a version 1 database
+ * holding a large history, the way a long-time user would upgrade.
+ *
+ * Each migration has to finish within MIGRATION_BUDGET_MILLIS and keep
+ * every mood and journal entry. The migrated database is then opened
+ * through Room, which fails if the result doesn't match the schema the
+ * entities describe.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MigrationTest {
+    private static final String TEST_DATABASE = "migration-test";
+    private static final int ROW_COUNT = 100000;
+    private static final long MIGRATION_BUDGET_MILLIS = 5000;
+
+    private Context mContext;
+
+    @Before
+    public void createVersion1Database() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mContext.deleteDatabase(TEST_DATABASE);
+
+        SupportSQLiteOpenHelper helper = openVersion1Helper();
+        SupportSQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SupportSQLiteStatement mood = db.compileStatement(
+                    "INSERT INTO `Mood` (`date`, `value`, `severity_level`) VALUES (?, ?, ?)");
+            SupportSQLiteStatement journal = db.compileStatement(
+                    "INSERT INTO `Journal` (`title`, `body`) VALUES (?, ?)");
+            for (int i = 1; i <= ROW_COUNT; i++) {
+                mood.bindLong(1, i);
+                mood.bindLong(2, i % 6 + 1);
+                mood.bindLong(3, i % 5 + 1);
+                mood.executeInsert();
+
+                journal.bindString(1, "Entry " + i);
+                journal.bindString(2, "Today was day " + i + " and I wrote about how it went, "
+                        + "what made me anxious and what I'm grateful for.");
+                journal.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        helper.close();
+    }
+
+    @After
+    public void deleteDatabase() {
+        mContext.deleteDatabase(TEST_DATABASE);
+    }
+
+    @Test
+    public void eachMigrationFitsBudgetAndKeepsRows() {
+        SupportSQLiteOpenHelper helper = openVersion1Helper();
+        SupportSQLiteDatabase db = helper.getWritableDatabase();
+        long moodIdSum = sum(db, "SELECT SUM(`mid`) FROM `Mood`");
+        long journalIdSum = sum(db, "SELECT SUM(`jid`) FROM `Journal`");
+
+        for (Migration migration : Migrations.ALL) {
+            long start = System.nanoTime();
+            db.beginTransaction();
+            try {
+                migration.migrate(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1000000;
+            String name = "Migration " + migration.startVersion + " -> " + migration.endVersion;
+
+            assertTrue(name + " took " + elapsedMillis + " ms",
+                    elapsedMillis <= MIGRATION_BUDGET_MILLIS);
+            assertEquals(name, ROW_COUNT, sum(db, "SELECT COUNT(*) FROM `Mood`"));
+            assertEquals(name, ROW_COUNT, sum(db, "SELECT COUNT(*) FROM `Journal`"));
+            assertEquals(name, moodIdSum, sum(db, "SELECT SUM(`mid`) FROM `Mood`"));
+            assertEquals(name, journalIdSum, sum(db, "SELECT SUM(`jid`) FROM `Journal`"));
+        }
+        helper.close();
+    }
+
+    @Test
+    public void migratedDatabaseMatchesEntities() {
+        AppDatabase database = Room.databaseBuilder(mContext, AppDatabase.class, TEST_DATABASE)
+                .addMigrations(Migrations.ALL)
+                .allowMainThreadQueries()
+                .build();
+        try {
+            assertEquals(ROW_COUNT, database.moodDao().getLastN(ROW_COUNT).size());
+            assertEquals(20, database.journalDao().getSummaries(20).size());
+
+            List<JournalSearchHit> hits = database.journalDao().searchHits("\"day 4242\"");
+            assertFalse(hits.isEmpty());
+
+            int rolledUp = 0;
+            for (MoodRollup rollup : database.moodRollupDao().getAll(MoodRollup.MONTH)) {
+                rolledUp += rollup.count;
+            }
+            assertEquals(ROW_COUNT, rolledUp);
+        } finally {
+            database.close();
+        }
+    }
+
+    private SupportSQLiteOpenHelper openVersion1Helper() {
+        SupportSQLiteOpenHelper.Configuration configuration = SupportSQLiteOpenHelper.Configuration
+                .builder(mContext)
+                .name(TEST_DATABASE)
+                .callback(new Version1Callback())
+                .build();
+        return new FrameworkSQLiteOpenHelperFactory().create(configuration);
+    }
+
+    private static long sum(SupportSQLiteDatabase db, String query) {
+        Cursor cursor = db.query(query);
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static class Version1Callback extends SupportSQLiteOpenHelper.Callback {
+        /**
+         * Creates the tables exactly as the first release of the app did.
+         */
+        Version1Callback() {
+            super(1);
+        }
+
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `Mood` ("
+                    + "`mid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`date` INTEGER NOT NULL, "
+                    + "`value` INTEGER NOT NULL, "
+                    + "`severity_level` INTEGER NOT NULL)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `Resources` ("
+                    + "`rid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`title` TEXT, `content` TEXT, `hyperlink` TEXT, `mood` INTEGER NOT NULL)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `Journal` ("
+                    + "`jid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`title` TEXT, `body` TEXT)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `Music` ("
+                    + "`rid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`title` TEXT, `content` TEXT, `hyperlink` TEXT, `mood` INTEGER NOT NULL)");
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+            // Migrations are applied by hand in the tests
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.texastech.talk.database;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the day ring behind MoodStats: days past the end of the ring
+ * reuse its slots, windows only count the days both in them and in the
+ * ring, a gap in the history empties the days skipped over, days before
+ * the epoch are found like any other, a mood stays on the day it was
+ * logged on in its own time zone, and the state survives being written
+ * and read back.
+ */
+public class MoodStatsTest {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+    private static final int WEEK = 0;
+    private static final int MONTH = 1;
+    private static final int QUARTER = 2;
+
+    @Test
+    public void ringWrapsAround() {
+        MoodStats stats = new MoodStats();
+        int days = MoodStats.RING_DAYS + 10;
+        for (int day = 0; day < days; day++) {
+            stats.add(noon(day), 0, day % 6 + 1, 3);
+        }
+
+        MoodStats.Summary summary = stats.summarize(noon(days - 1), 0);
+        assertEquals(days, summary.count);
+        assertEquals(MoodStats.RING_DAYS, summary.windows[QUARTER].count);
+        assertEquals(meanOfDays(days - MoodStats.RING_DAYS, days),
+                summary.windows[QUARTER].valueMean, 1e-9);
+        assertEquals(7, summary.windows[WEEK].count);
+        assertEquals(meanOfDays(days - 7, days), summary.windows[WEEK].valueMean, 1e-9);
+        assertEquals(3, summary.windows[WEEK].severityMean, 1e-9);
+        assertEquals(0, summary.windows[WEEK].severityVariance, 1e-9);
+    }
+
+    @Test
+    public void windowsAreClipped() {
+        MoodStats stats = new MoodStats();
+        stats.add(noon(10), 0, 2, 3);
+
+        // Only the window long enough reaches back to the mood
+        MoodStats.Summary summary = stats.summarize(noon(20), 0);
+        assertEquals(0, summary.windows[WEEK].count);
+        assertEquals(1, summary.windows[MONTH].count);
+        assertEquals(2, summary.windows[MONTH].valueMean, 1e-9);
+
+        // Nothing after now is counted
+        summary = stats.summarize(noon(9), 0);
+        for (MoodStats.Window window : summary.windows) {
+            assertEquals(0, window.count);
+        }
+
+        // Nor anything the ring has already moved past
+        stats.add(noon(10 + MoodStats.RING_DAYS), 0, 4, 3);
+        summary = stats.summarize(noon(10 + MoodStats.RING_DAYS), 0);
+        assertEquals(1, summary.windows[QUARTER].count);
+        assertEquals(4, summary.windows[QUARTER].valueMean, 1e-9);
+        assertEquals(2, summary.count);
+    }
+
+    @Test
+    public void advanceToEmptiesTheDaysSkippedOver() {
+        // Day 90 lands in the slot of day 0, which the jump has to clear
+        MoodStats stats = new MoodStats();
+        stats.add(noon(0), 0, 1, 1);
+        stats.add(noon(30), 0, 2, 2);
+        stats.add(noon(MoodStats.RING_DAYS), 0, 3, 3);
+        MoodStats.Summary summary = stats.summarize(noon(MoodStats.RING_DAYS), 0);
+        assertEquals(2, summary.windows[QUARTER].count);
+        assertEquals(2.5, summary.windows[QUARTER].valueMean, 1e-9);
+
+        // A gap longer than the ring clears all of it
+        stats = new MoodStats();
+        for (int day = 0; day < 5; day++) {
+            stats.add(noon(day), 0, 1, 1);
+        }
+        stats.add(noon(4 + 3 * MoodStats.RING_DAYS), 0, 6, 5);
+        summary = stats.summarize(noon(4 + 3 * MoodStats.RING_DAYS), 0);
+        assertEquals(1, summary.windows[QUARTER].count);
+        assertEquals(6, summary.windows[QUARTER].valueMean, 1e-9);
+        assertEquals(6, summary.count);
+    }
+
+    @Test
+    public void daysBeforeTheEpoch() {
+        // The last millisecond before the epoch is day -1, not day 0
+        MoodStats stats = new MoodStats();
+        stats.add(-1, 0, 2, 3);
+        assertEquals(1, stats.summarize(5 * DAY_MILLIS, 0).windows[WEEK].count);
+        assertEquals(0, stats.summarize(6 * DAY_MILLIS, 0).windows[WEEK].count);
+
+        // Midnight itself starts the day
+        stats = new MoodStats();
+        stats.add(-DAY_MILLIS, 0, 2, 3);
+        assertEquals(1, stats.summarize(5 * DAY_MILLIS, 0).windows[WEEK].count);
+        assertEquals(0, stats.summarize(6 * DAY_MILLIS, 0).windows[WEEK].count);
+
+        // An hour before the epoch is already day 0 two hours east of it
+        stats = new MoodStats();
+        stats.add(-HOUR_MILLIS, 2 * (int)HOUR_MILLIS, 2, 3);
+        assertEquals(1, stats.summarize(7 * DAY_MILLIS - 3 * HOUR_MILLIS, 0).windows[WEEK].count);
+    }
+
+    @Test
+    public void moodsKeepTheDayTheyWereLoggedOn() {
+        // 23:00 on day 6 in New York is already day 7 in UTC
+        int newYork = -5 * (int)HOUR_MILLIS;
+        MoodStats stats = new MoodStats();
+        stats.add(6 * DAY_MILLIS + 23 * HOUR_MILLIS - newYork, newYork, 2, 3);
+
+        // So it's still in the week ending on day 12, wherever that's asked from
+        assertEquals(1, stats.summarize(noon(12), 0).windows[WEEK].count);
+        assertEquals(1, stats.summarize(noon(12) - newYork, newYork).windows[WEEK].count);
+        assertEquals(0, stats.summarize(noon(13), 0).windows[WEEK].count);
+    }
+
+    @Test
+    public void stateRoundTrips() throws IOException {
+        MoodStats stats = new MoodStats();
+        long time = 0;
+        for (int i = 0; i < 300; i++) {
+            stats.add(time += 7 * HOUR_MILLIS, 0, (i * 7) % 6 + 1, i % 5 + 1);
+        }
+        // One out of order, which counts but doesn't move the average
+        stats.add(time - 3 * DAY_MILLIS, 0, 6, 5);
+
+        MoodStats copy = new MoodStats();
+        copy.add(noon(-500), 0, 1, 1);
+        copy.readFrom(read(stats));
+        assertSameSummary(stats.summarize(time, 0), copy.summarize(time, 0));
+
+        // And carries on the same way
+        stats.add(time + DAY_MILLIS, 0, 4, 2);
+        copy.add(time + DAY_MILLIS, 0, 4, 2);
+        assertSameSummary(stats.summarize(time + DAY_MILLIS, 0),
+                copy.summarize(time + DAY_MILLIS, 0));
+    }
+
+    @Test(expected = IOException.class)
+    public void otherVersionsAreRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(-1);
+        out.flush();
+        new MoodStats().readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static long noon(long day) {
+        return day * DAY_MILLIS + 12 * HOUR_MILLIS;
+    }
+
+    private static double meanOfDays(int from, int to) {
+        double sum = 0;
+        for (int day = from; day < to; day++) {
+            sum += day % 6 + 1;
+        }
+        return sum / (to - from);
+    }
+
+    private static DataInputStream read(MoodStats stats) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        stats.writeTo(out);
+        out.flush();
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static void assertSameSummary(MoodStats.Summary expected, MoodStats.Summary actual) {
+        assertEquals(expected.count, actual.count);
+        assertEquals(expected.movingAverage, actual.movingAverage, 0);
+        assertEquals(expected.currentStreakValue, actual.currentStreakValue);
+        assertEquals(expected.currentStreak, actual.currentStreak);
+        assertArrayEquals(expected.longestStreaks, actual.longestStreaks);
+        assertArrayEquals(expected.distribution, actual.distribution);
+        for (int w = 0; w < MoodStats.WINDOWS.length; w++) {
+            assertEquals(expected.windows[w].count, actual.windows[w].count);
+            assertEquals(expected.windows[w].valueMean, actual.windows[w].valueMean, 0);
+            assertEquals(expected.windows[w].valueVariance, actual.windows[w].valueVariance, 0);
+            assertEquals(expected.windows[w].severityMean, actual.windows[w].severityMean, 0);
+            assertEquals(expected.windows[w].severityVariance, actual.windows[w].severityVariance, 0);
+        }
+    }
+}
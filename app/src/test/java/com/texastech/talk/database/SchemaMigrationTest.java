@@ -0,0 +1,60 @@
+package com.texastech.talk.database;
+
+import androidx.room.migration.Migration;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+
+/**
+ * Checks the migrations against the schemas Room exports to app/schemas.
+ * Every migration runs on a database created from the schema of the
+ * version it starts at, and MigrationTestHelper fails the test if the
+ * result doesn't match the schema of the version it ends at. The whole
+ * chain is then run the same way from version 1.
+ *
+ * The schemas of versions 1 to 9 predate exportSchema and were written
+ * from the entities as they were at each version, in the same format.
+ *
+ * The schema of the newest version has to be there too, so a version
+ * bump without its exported schema is caught here.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SchemaMigrationTest {
+    private static final String TEST_DATABASE = "schema-migration-test";
+
+    @Rule
+    public MigrationTestHelper mHelper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName(),
+            new FrameworkSQLiteOpenHelperFactory());
+
+    @Test
+    public void migrationsMatchExportedSchemas() throws IOException {
+        for (Migration migration : Migrations.ALL) {
+            mHelper.createDatabase(TEST_DATABASE, migration.startVersion).close();
+            mHelper.runMigrationsAndValidate(TEST_DATABASE, migration.endVersion, true, migration)
+                    .close();
+        }
+    }
+
+    @Test
+    public void chainMatchesNewestSchema() throws IOException {
+        int newestVersion = Migrations.ALL[Migrations.ALL.length - 1].endVersion;
+        mHelper.createDatabase(TEST_DATABASE, Migrations.ALL[0].startVersion).close();
+        mHelper.runMigrationsAndValidate(TEST_DATABASE, newestVersion, true, Migrations.ALL)
+                .close();
+    }
+
+    @Test
+    public void newestVersionIsExported() throws IOException {
+        int newestVersion = Migrations.ALL[Migrations.ALL.length - 1].endVersion;
+        mHelper.createDatabase(TEST_DATABASE, newestVersion).close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.texastech.talk.navigation;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs MoodDownsampler over synthetic stretches of the mood series and
+ * checks what it picks: the first and last points always, exactly
+ * threshold points in increasing order, every point when there are no
+ * more than threshold, and the peaks a plain average would flatten.
+ */
+public class MoodDownsamplerTest {
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+
+    @Test
+    public void keepsThresholdPointsInOrderWithTheEnds() {
+        long[] xs = new long[7000];
+        byte[] ys = new byte[xs.length];
+        fill(xs, ys, new Random(7));
+
+        for (int threshold : new int[] {3, 4, 60, 400, 6999}) {
+            int[] out = new int[threshold];
+            assertEquals(threshold, MoodDownsampler.downsample(xs, ys, 0, xs.length, threshold, out));
+            assertEquals(0, out[0]);
+            assertEquals(xs.length - 1, out[threshold - 1]);
+            for (int i = 1; i < threshold; i++) {
+                assertTrue("Index " + i + " of " + threshold, out[i] > out[i - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void worksOnAStretchOfTheSeries() {
+        long[] xs = new long[1000];
+        byte[] ys = new byte[xs.length];
+        fill(xs, ys, new Random(11));
+
+        int[] out = new int[50];
+        assertEquals(50, MoodDownsampler.downsample(xs, ys, 200, 700, 50, out));
+        assertEquals(200, out[0]);
+        assertEquals(699, out[49]);
+        for (int i = 1; i < 50; i++) {
+            assertTrue(out[i] > out[i - 1]);
+        }
+    }
+
+    @Test
+    public void passesEverythingThroughUnderTheThreshold() {
+        long[] xs = new long[100];
+        byte[] ys = new byte[xs.length];
+        fill(xs, ys, new Random(3));
+
+        int[] out = new int[100];
+        assertEquals(100, MoodDownsampler.downsample(xs, ys, 0, 100, 100, out));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, out[i]);
+        }
+
+        assertEquals(30, MoodDownsampler.downsample(xs, ys, 40, 70, 400, out));
+        for (int i = 0; i < 30; i++) {
+            assertEquals(40 + i, out[i]);
+        }
+
+        assertEquals(0, MoodDownsampler.downsample(xs, ys, 10, 10, 400, out));
+    }
+
+    @Test
+    public void tinyThresholdsKeepOnlyTheEnds() {
+        long[] xs = new long[20];
+        byte[] ys = new byte[xs.length];
+        fill(xs, ys, new Random(5));
+
+        int[] out = new int[2];
+        assertEquals(2, MoodDownsampler.downsample(xs, ys, 0, 20, 2, out));
+        assertArrayEquals(new int[] {0, 19}, out);
+        assertEquals(1, MoodDownsampler.downsample(xs, ys, 0, 20, 1, out));
+        assertEquals(0, out[0]);
+        assertEquals(0, MoodDownsampler.downsample(xs, ys, 0, 20, 0, out));
+    }
+
+    @Test
+    public void keepsALoneDip() {
+        // A steady history with one very low mood in the middle
+        long[] xs = new long[1000];
+        byte[] ys = new byte[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i * HOUR_MILLIS;
+            ys[i] = 5;
+        }
+        ys[517] = 1;
+
+        int[] out = new int[20];
+        MoodDownsampler.downsample(xs, ys, 0, xs.length, 20, out);
+        boolean kept = false;
+        for (int index : out) {
+            kept |= index == 517;
+        }
+        assertTrue(kept);
+    }
+
+    private static void fill(long[] xs, byte[] ys, Random random) {
+        /**
+         * Moods a few hours apart, with the odd long gap, wandering up and
+         * down between 1 and 6.
+         */
+        long time = 1500000000000L;
+        int value = 3;
+        for (int i = 0; i < xs.length; i++) {
+            time += random.nextInt(20) == 0 ? 40 * HOUR_MILLIS : random.nextInt(8) * HOUR_MILLIS + 1;
+            value = Math.min(6, Math.max(1, value + random.nextInt(3) - 1));
+            xs[i] = time;
+            ys[i] = (byte)value;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.texastech.talk.navigation;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.fragment.app.FragmentActivity;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.github.mikephil.charting.charts.LineChart;
+import com.texastech.talk.R;
+import com.texastech.talk.database.AppExecutors;
+import com.texastech.talk.database.Mood;
+import com.texastech.talk.database.MoodRepository;
+import com.texastech.talk.database.MoodStats;
+import com.texastech.talk.database.MoodStatsStore;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Measures opening the statistics tab: a StatisticsFragment is added to a
+ * new activity, so nothing is kept in a StatisticsViewModel, and timed
+ * until its week chart is bound, with the main thread running whatever
+ * the fragment posted to it in between.
+ *
+ * A few years of moods are logged first. A cold open finds nothing in the
+ * StatisticsCache, as after a restart before the warm-up ran, and waits
+ * for the fragment to have it built on the database pool. A warm open
+ * finds what the cold one built and only binds it. The average time per
+ * open of both is in the message if the warm open isn't the faster one.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StatisticsTabBenchmark {
+    private static final int MOOD_COUNT = 5000;
+    private static final int ROUNDS = 20;
+    private static final long OPEN_TIMEOUT_MILLIS = 10000;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+
+    @Test
+    public void preparedDataOpensFaster() throws Exception {
+        final Context context = ApplicationProvider.getApplicationContext();
+        onDiskIO(new Callable<Void>() {
+            @Override
+            public Void call() {
+                logMoods(context);
+                return null;
+            }
+        });
+
+        // The first round loads the classes and resources and isn't counted
+        long coldNanos = 0;
+        long warmNanos = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            dropCache();
+            long cold = open();
+            long warm = open();
+
+            if (round > 0) {
+                coldNanos += cold;
+                warmNanos += warm;
+            }
+        }
+
+        double coldMicros = coldNanos / 1000.0 / ROUNDS;
+        double warmMicros = warmNanos / 1000.0 / ROUNDS;
+        final MoodStatsStore stats = MoodStatsStore.getInstance(context);
+        assertEquals(MOOD_COUNT, onDiskIO(new Callable<MoodStats.Summary>() {
+            @Override
+            public MoodStats.Summary call() {
+                return stats.summarize();
+            }
+        }).count);
+        assertTrue(String.format("Tab open with %d moods: %.1f us cold, %.1f us warm",
+                MOOD_COUNT, coldMicros, warmMicros), warmMicros < coldMicros);
+    }
+
+    private static long open() throws InterruptedException {
+        /**
+         * Shows a new StatisticsFragment and returns the nanoseconds from
+         * adding it until its chart has data.
+         */
+        ActivityController<FragmentActivity> activity =
+                Robolectric.buildActivity(FragmentActivity.class).setup();
+        StatisticsFragment fragment = StatisticsFragment.newInstance();
+
+        long start = System.nanoTime();
+        activity.get().getSupportFragmentManager().beginTransaction()
+                .add(android.R.id.content, fragment)
+                .commitNow();
+        LineChart chart = fragment.requireView().findViewById(R.id.mood_chart);
+        long deadline = System.currentTimeMillis() + OPEN_TIMEOUT_MILLIS;
+        while (chart.getData() == null) {
+            assertTrue("The chart was never bound", System.currentTimeMillis() < deadline);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.yield();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        activity.pause().stop().destroy();
+        return elapsed;
+    }
+
+    private static void dropCache() throws ReflectiveOperationException {
+        /**
+         * Forgets the StatisticsCache the way a restart would, the next
+         * fragment gets a new one with nothing prepared.
+         */
+        Field instance = StatisticsCache.class.getDeclaredField("mSingleInstance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    private static <T> T onDiskIO(Callable<T> work) throws Exception {
+        /**
+         * Runs work on the database pool and waits for it, the test itself
+         * runs on the main thread where Room won't run queries.
+         */
+        return AppExecutors.getInstance().diskIO().submit(work).get();
+    }
+
+    private static void logMoods(Context context) {
+        /**
+         * One mood every eight hours or so, up to now. Has to run on the
+         * database pool.
+         */
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<Mood> moods = new ArrayList<>(MOOD_COUNT);
+        for (int i = MOOD_COUNT; i > 0; i--) {
+            long timestamp = now - i * 8 * HOUR_MILLIS + random.nextInt((int)HOUR_MILLIS);
+            moods.add(new Mood(timestamp, random.nextInt(6) + 1, random.nextInt(5) + 1));
+        }
+        MoodRepository.getInstance(context).insertAll(moods);
+    }
+}